@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import com.google.gson.Gson;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Scopes;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import net.runelite.api.Client;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.input.KeyManager;
+import net.runelite.client.input.MouseManager;
+import net.runelite.client.ui.ClientToolbar;
+import net.runelite.client.ui.components.colorpicker.ColorPickerManager;
+import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.http.api.RuneLiteAPI;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A started plugin backed by an in-memory configuration holding the given
+ * number of markers spread evenly over the given number of groups. Client
+ * services are stub-only mocks, so they neither record invocations nor add
+ * allocations of their own to the measurements.
+ */
+@State(Scope.Benchmark)
+public class ScreenMarkerBenchmarkState {
+	private static final int CANVAS_WIDTH = 1920;
+	private static final int CANVAS_HEIGHT = 1080;
+
+	@Param({ "10", "100", "1000", "10000" })
+	int markerCount;
+
+	@Param({ "10", "100", "1000", "10000" })
+	int groupCount;
+
+	ScreenMarkerGroupsPlugin plugin;
+	List<ScreenMarkerOverlay> markers;
+
+	private final Map<String, String> configuration = new HashMap<>();
+	private ScheduledExecutorService executor;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		final Gson gson = RuneLiteAPI.GSON;
+		writeLegacyConfig(gson);
+
+		executor = Executors.newSingleThreadScheduledExecutor();
+		final Injector injector = Guice.createInjector(binder -> {
+			binder.bind(Client.class).toInstance(stub(Client.class));
+			binder.bind(ConfigManager.class).toInstance(configManager());
+			binder.bind(ScreenMarkerGroupsConfig.class).toInstance(Mockito.mock(ScreenMarkerGroupsConfig.class,
+					Mockito.withSettings().stubOnly().defaultAnswer(Mockito.CALLS_REAL_METHODS)));
+			binder.bind(MouseManager.class).toInstance(stub(MouseManager.class));
+			binder.bind(KeyManager.class).toInstance(stub(KeyManager.class));
+			binder.bind(ClientToolbar.class).toInstance(stub(ClientToolbar.class));
+			binder.bind(OverlayManager.class).toInstance(stub(OverlayManager.class));
+			binder.bind(ColorPickerManager.class).toInstance(stub(ColorPickerManager.class));
+			binder.bind(Gson.class).toInstance(gson);
+			binder.bind(ScheduledExecutorService.class).toInstance(executor);
+			binder.bind(ScreenMarkerGroupsPlugin.class).in(Scopes.SINGLETON);
+		});
+
+		plugin = injector.getInstance(ScreenMarkerGroupsPlugin.class);
+		plugin.startUp();
+		// Write the migrated, per-group layout the load benchmark reads
+		plugin.getSaveScheduler().flush();
+
+		markers = new ArrayList<>();
+		plugin.getMarkerGroups().values().forEach(markers::addAll);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		plugin.shutDown();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Writes the markers in the legacy single-key layout, so that starting the
+	 * plugin migrates them through the regular save path.
+	 */
+	private void writeLegacyConfig(Gson gson) {
+		final Map<String, List<ScreenMarker>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < groupCount; i++) {
+			groups.put("Group " + i, new ArrayList<>());
+		}
+
+		for (int i = 0; i < markerCount; i++) {
+			final long id = i + 1;
+			final ScreenMarker marker = new ScreenMarker(id, "Marker " + i, 1 + i % 5,
+					new Color(i * 37 % 256, i * 11 % 256, i * 7 % 256),
+					i % 3 == 0 ? null : new Color(0, 0, 0, 50), true, i % 2 == 0, null);
+			groups.get("Group " + i % groupCount).add(marker);
+
+			configuration.put("runelite.marker" + id + "_preferredLocation",
+					(i * 53 % CANVAS_WIDTH) + ":" + (i * 29 % CANVAS_HEIGHT));
+			configuration.put("runelite.marker" + id + "_preferredSize", (20 + i % 80) + "x" + (20 + i % 60));
+		}
+
+		configuration.put("screenmarkergroups.markerGroups", gson.toJson(groups));
+	}
+
+	/**
+	 * @return A config manager reading and writing the in-memory configuration.
+	 */
+	private ConfigManager configManager() {
+		final ConfigManager configManager = stub(ConfigManager.class);
+		Mockito.doAnswer(invocation -> configuration.get(invocation.getArgument(0) + "." + invocation.getArgument(1)))
+				.when(configManager).getConfiguration(Mockito.anyString(), Mockito.anyString());
+		Mockito.doAnswer(invocation -> configuration.put(invocation.getArgument(0) + "." + invocation.getArgument(1),
+				invocation.getArgument(2)))
+				.when(configManager).setConfiguration(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+		Mockito.doAnswer(invocation -> configuration.remove(invocation.getArgument(0) + "." + invocation.getArgument(1)))
+				.when(configManager).unsetConfiguration(Mockito.anyString(), Mockito.anyString());
+		return configManager;
+	}
+
+	private static <T> T stub(Class<T> type) {
+		return Mockito.mock(type, Mockito.withSettings().stubOnly());
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the plugin's hot paths. Run with {@code ./gradlew jmh}; the
+ * report includes allocation rates from the GC profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScreenMarkerGroupsBenchmark {
+	/**
+	 * An offscreen canvas the size of a resizable client.
+	 */
+	@State(Scope.Thread)
+	public static class Canvas {
+		BufferedImage image;
+		Graphics2D graphics;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			image = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_ARGB);
+			graphics = image.createGraphics();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			graphics.dispose();
+		}
+	}
+
+	/**
+	 * Cycles through the markers, so each lookup hits a different one.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+	}
+
+	/**
+	 * Renders one frame: every visible marker drawn at its location, as the
+	 * overlay renderer would.
+	 */
+	@Benchmark
+	public void renderFrame(ScreenMarkerBenchmarkState state, Canvas canvas, Blackhole blackhole) {
+		final Graphics2D graphics = canvas.graphics;
+		for (ScreenMarkerRenderState renderState : state.plugin.getRenderSnapshot().getVisibleMarkers()) {
+			final ScreenMarkerOverlay overlay = renderState.getOverlay();
+			final Point location = overlay.getPreferredLocation();
+			graphics.translate(location.x, location.y);
+			blackhole.consume(overlay.render(graphics));
+			graphics.translate(-location.x, -location.y);
+		}
+	}
+
+	@Benchmark
+	public String findGroupForMarker(ScreenMarkerBenchmarkState state, Cursor cursor) {
+		final ScreenMarkerOverlay marker = state.markers.get(cursor.next);
+		cursor.next = (cursor.next + 1) % state.markers.size();
+		return state.plugin.findGroupForMarker(marker);
+	}
+
+	/**
+	 * Serializes and writes every group and the manifest, bypassing the save
+	 * delay.
+	 */
+	@Benchmark
+	public void saveGroupsConfig(ScreenMarkerBenchmarkState state) {
+		state.plugin.updateGroupsConfig();
+		state.plugin.getSaveScheduler().flush();
+	}
+
+	@Benchmark
+	public void loadGroupsConfig(ScreenMarkerBenchmarkState state) {
+		state.plugin.loadGroupsConfig();
+	}
+
+	@Benchmark
+	public void rebuildPanel(ScreenMarkerBenchmarkState state) {
+		state.plugin.getPluginPanel().rebuild();
+	}
+}
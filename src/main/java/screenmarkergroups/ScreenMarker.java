@@ -82,4 +82,28 @@ public class ScreenMarker {
 	 * Can be null if the marker was created directly in this plugin.
 	 */
 	private Long importedId;
+
+	/**
+	 * The packed id of the widget this marker is anchored to, if it was created
+	 * by clicking a widget. Anchored markers follow the widget's bounds when the
+	 * interface layout changes. Null for free-standing markers.
+	 */
+	private Integer widgetId;
+
+	/**
+	 * The index of the anchored child of {@link #widgetId}, or -1 if the marker
+	 * is anchored to the widget itself. Null for free-standing markers.
+	 */
+	private Integer widgetChildIndex;
+
+	/**
+	 * Creates a copy of this marker, e.g. so it can be serialized off the Swing
+	 * thread while the original is being edited.
+	 *
+	 * @return A new marker with the same properties.
+	 */
+	public ScreenMarker copy() {
+		return new ScreenMarker(id, name, borderThickness, color, fill, visible, labelled, importedId, widgetId,
+				widgetChildIndex);
+	}
 }
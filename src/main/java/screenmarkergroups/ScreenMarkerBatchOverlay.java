@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayLayer;
+import net.runelite.client.ui.overlay.OverlayPosition;
+
+/**
+ * Overlay used in batched rendering mode. Draws every visible screen marker in
+ * a single render pass instead of registering one overlay per marker with the
+ * OverlayManager. Individual marker overlays are only registered while the
+ * user is holding Alt, so markers can still be moved and resized.
+ * Optionally, the markers are composited into a static layer which is only
+ * redrawn when a marker changes.
+ */
+class ScreenMarkerBatchOverlay extends Overlay {
+	private final ScreenMarkerGroupsPlugin plugin;
+	private final Client client;
+	private final ScreenMarkerStaticLayer staticLayer = new ScreenMarkerStaticLayer();
+	private final Consumer<Graphics2D> markerPainter = this::renderMarkers;
+
+	/**
+	 * Injects dependencies and sets up the overlay properties.
+	 *
+	 * @param plugin The main plugin instance, used to access the marker groups.
+	 * @param client The RuneLite client instance, used for the canvas size.
+	 */
+	@Inject
+	private ScreenMarkerBatchOverlay(final ScreenMarkerGroupsPlugin plugin, final Client client) {
+		this.plugin = plugin;
+		this.client = client;
+		setPosition(OverlayPosition.DYNAMIC);
+		setLayer(OverlayLayer.ALWAYS_ON_TOP);
+		setPriority(PRIORITY_HIGH);
+		setMovable(false);
+		setResettable(false);
+	}
+
+	/**
+	 * Renders all visible markers, either directly or by blitting the static
+	 * layer.
+	 *
+	 * @param graphics Graphics2D context for drawing.
+	 * @return null, as this overlay has no bounds of its own.
+	 */
+	@Override
+	public Dimension render(Graphics2D graphics) {
+		if (!plugin.isStaticLayerEnabled()) {
+			renderMarkers(graphics);
+			return null;
+		}
+
+		int width = client.getCanvasWidth();
+		int height = client.getCanvasHeight();
+		if (client.isStretchedEnabled()) {
+			// Size the layer to cover both the stretched and unstretched canvas
+			final Dimension stretched = client.getStretchedDimensions();
+			width = Math.max(width, stretched.width);
+			height = Math.max(height, stretched.height);
+		}
+		staticLayer.render(graphics, plugin.getRenderVersion(), width, height, markerPainter);
+		return null;
+	}
+
+	/**
+	 * Releases the static layer image.
+	 */
+	void clearStaticLayer() {
+		staticLayer.clear();
+	}
+
+	/**
+	 * Draws all visible markers of the current render snapshot, in display order.
+	 * Each marker is drawn by its own overlay's render method, translated to the
+	 * marker's location.
+	 *
+	 * @param graphics Graphics2D context for drawing.
+	 */
+	private void renderMarkers(Graphics2D graphics) {
+		final List<ScreenMarkerRenderState> markers = plugin.getRenderSnapshot().getVisibleMarkers();
+		// Indexed loop avoids allocating an iterator every frame
+		for (int i = 0; i < markers.size(); i++) {
+			final ScreenMarkerOverlay markerOverlay = markers.get(i).getOverlay();
+			final Point location = markerOverlay.getPreferredLocation();
+			if (location == null) {
+				continue;
+			}
+
+			graphics.translate(location.x, location.y);
+			markerOverlay.render(graphics);
+			graphics.translate(-location.x, -location.y);
+		}
+	}
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.Locale;
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.Skill;
+
+/**
+ * A compiled group visibility condition. Conditions are written in a small
+ * language:
+ * <ul>
+ * <li>{@code varbit(id) = value}: a varbit compared with {@code =}, {@code !=},
+ * {@code <}, {@code <=}, {@code >} or {@code >=}</li>
+ * <li>{@code level(skill) >= value}: the boosted level of a skill, compared the
+ * same way</li>
+ * <li>{@code item(id)}: an item is in the inventory</li>
+ * <li>{@code equipped(id)}: an item is equipped</li>
+ * <li>{@code combat}: the player is interacting with an attackable NPC</li>
+ * </ul>
+ * combined with {@code !}, {@code &&}, {@code ||} and parentheses. Each
+ * condition reports the inputs it reads, so it only has to be tested again when
+ * one of them changes. Conditions are tested on the client thread.
+ */
+abstract class ScreenMarkerCondition {
+	/**
+	 * The kinds of game state a condition can depend on, each changed by one
+	 * RuneLite event.
+	 */
+	enum Input {
+		/** A varbit, identified by its id. Changed by VarbitChanged. */
+		VARBIT,
+		/** The inventory. Changed by ItemContainerChanged. */
+		INVENTORY,
+		/** The equipment. Changed by ItemContainerChanged. */
+		EQUIPMENT,
+		/** A skill, identified by its ordinal. Changed by StatChanged. */
+		SKILL,
+		/** The player's interaction target. Changed by InteractingChanged. */
+		INTERACTING
+	}
+
+	/**
+	 * Receives the inputs a condition depends on.
+	 */
+	interface InputConsumer {
+		void accept(Input input, int id);
+	}
+
+	/**
+	 * Tests the condition against the current game state.
+	 *
+	 * @param client The RuneLite client instance.
+	 * @return True if the condition holds.
+	 */
+	abstract boolean test(Client client);
+
+	/**
+	 * Reports every input the condition depends on.
+	 *
+	 * @param inputs Receives the inputs.
+	 */
+	abstract void collectInputs(InputConsumer inputs);
+
+	/**
+	 * Compiles a condition.
+	 *
+	 * @param source The condition text.
+	 * @return The compiled condition.
+	 * @throws IllegalArgumentException If the text is not a valid condition.
+	 */
+	static ScreenMarkerCondition compile(String source) {
+		final Parser parser = new Parser(source);
+		final ScreenMarkerCondition condition = parser.parseOr();
+		parser.skipWhitespace();
+		if (!parser.atEnd()) {
+			throw parser.error("Unexpected '" + parser.peek() + "'");
+		}
+		return condition;
+	}
+
+	private enum Comparison {
+		EQ, NE, LT, LE, GT, GE;
+
+		boolean test(int value, int operand) {
+			switch (this) {
+				case EQ:
+					return value == operand;
+				case NE:
+					return value != operand;
+				case LT:
+					return value < operand;
+				case LE:
+					return value <= operand;
+				case GT:
+					return value > operand;
+				default:
+					return value >= operand;
+			}
+		}
+	}
+
+	private static final class And extends ScreenMarkerCondition {
+		private final ScreenMarkerCondition left;
+		private final ScreenMarkerCondition right;
+
+		And(ScreenMarkerCondition left, ScreenMarkerCondition right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		boolean test(Client client) {
+			return left.test(client) && right.test(client);
+		}
+
+		@Override
+		void collectInputs(InputConsumer inputs) {
+			left.collectInputs(inputs);
+			right.collectInputs(inputs);
+		}
+	}
+
+	private static final class Or extends ScreenMarkerCondition {
+		private final ScreenMarkerCondition left;
+		private final ScreenMarkerCondition right;
+
+		Or(ScreenMarkerCondition left, ScreenMarkerCondition right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		boolean test(Client client) {
+			return left.test(client) || right.test(client);
+		}
+
+		@Override
+		void collectInputs(InputConsumer inputs) {
+			left.collectInputs(inputs);
+			right.collectInputs(inputs);
+		}
+	}
+
+	private static final class Not extends ScreenMarkerCondition {
+		private final ScreenMarkerCondition operand;
+
+		Not(ScreenMarkerCondition operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		boolean test(Client client) {
+			return !operand.test(client);
+		}
+
+		@Override
+		void collectInputs(InputConsumer inputs) {
+			operand.collectInputs(inputs);
+		}
+	}
+
+	private static final class VarbitValue extends ScreenMarkerCondition {
+		private final int varbitId;
+		private final Comparison comparison;
+		private final int operand;
+
+		VarbitValue(int varbitId, Comparison comparison, int operand) {
+			this.varbitId = varbitId;
+			this.comparison = comparison;
+			this.operand = operand;
+		}
+
+		@Override
+		boolean test(Client client) {
+			return comparison.test(client.getVarbitValue(varbitId), operand);
+		}
+
+		@Override
+		void collectInputs(InputConsumer inputs) {
+			inputs.accept(Input.VARBIT, varbitId);
+		}
+	}
+
+	private static final class SkillLevel extends ScreenMarkerCondition {
+		private final Skill skill;
+		private final Comparison comparison;
+		private final int operand;
+
+		SkillLevel(Skill skill, Comparison comparison, int operand) {
+			this.skill = skill;
+			this.comparison = comparison;
+			this.operand = operand;
+		}
+
+		@Override
+		boolean test(Client client) {
+			return comparison.test(client.getBoostedSkillLevel(skill), operand);
+		}
+
+		@Override
+		void collectInputs(InputConsumer inputs) {
+			inputs.accept(Input.SKILL, skill.ordinal());
+		}
+	}
+
+	private static final class ContainsItem extends ScreenMarkerCondition {
+		private final Input container;
+		private final int itemId;
+
+		ContainsItem(Input container, int itemId) {
+			this.container = container;
+			this.itemId = itemId;
+		}
+
+		@Override
+		boolean test(Client client) {
+			final ItemContainer items = client.getItemContainer(
+					container == Input.EQUIPMENT ? InventoryID.EQUIPMENT : InventoryID.INVENTORY);
+			return items != null && items.contains(itemId);
+		}
+
+		@Override
+		void collectInputs(InputConsumer inputs) {
+			inputs.accept(container, 0);
+		}
+	}
+
+	private static final class InCombat extends ScreenMarkerCondition {
+		@Override
+		boolean test(Client client) {
+			final Player player = client.getLocalPlayer();
+			final Actor target = player != null ? player.getInteracting() : null;
+			return target instanceof NPC && ((NPC) target).getCombatLevel() > 0;
+		}
+
+		@Override
+		void collectInputs(InputConsumer inputs) {
+			inputs.accept(Input.INTERACTING, 0);
+		}
+	}
+
+	/**
+	 * Recursive descent parser for the condition language. Nesting and the
+	 * number of conditions are limited, so neither parsing nor testing a
+	 * condition can overflow the stack.
+	 */
+	private static final class Parser {
+		private static final int MAX_NESTING = 32;
+		private static final int MAX_TERMS = 64;
+
+		private final String source;
+		private int pos;
+		private int nesting;
+		private int terms;
+
+		Parser(String source) {
+			this.source = source;
+		}
+
+		ScreenMarkerCondition parseOr() {
+			ScreenMarkerCondition condition = parseAnd();
+			while (accept("||")) {
+				condition = new Or(condition, parseAnd());
+			}
+			return condition;
+		}
+
+		private ScreenMarkerCondition parseAnd() {
+			ScreenMarkerCondition condition = parseUnary();
+			while (accept("&&")) {
+				condition = new And(condition, parseUnary());
+			}
+			return condition;
+		}
+
+		private ScreenMarkerCondition parseUnary() {
+			if (accept("!")) {
+				enter();
+				final ScreenMarkerCondition operand = parseUnary();
+				nesting--;
+				return new Not(operand);
+			}
+			if (accept("(")) {
+				enter();
+				final ScreenMarkerCondition condition = parseOr();
+				expect(")");
+				nesting--;
+				return condition;
+			}
+			return parseAtom();
+		}
+
+		private void enter() {
+			if (++nesting > MAX_NESTING) {
+				throw error("Nested too deeply");
+			}
+		}
+
+		private ScreenMarkerCondition parseAtom() {
+			if (++terms > MAX_TERMS) {
+				throw error("Too many conditions");
+			}
+			final String name = parseWord().toLowerCase(Locale.ROOT);
+			switch (name) {
+				case "combat":
+					return new InCombat();
+				case "item":
+					return new ContainsItem(Input.INVENTORY, parseIntArgument());
+				case "equipped":
+					return new ContainsItem(Input.EQUIPMENT, parseIntArgument());
+				case "varbit": {
+					final int varbitId = parseIntArgument();
+					final Comparison comparison = parseComparison();
+					return new VarbitValue(varbitId, comparison, parseInt());
+				}
+				case "level": {
+					expect("(");
+					final String skillName = parseWord();
+					expect(")");
+					final Skill skill;
+					try {
+						skill = Skill.valueOf(skillName.toUpperCase(Locale.ROOT));
+					} catch (IllegalArgumentException e) {
+						throw error("Unknown skill '" + skillName + "'");
+					}
+					final Comparison comparison = parseComparison();
+					return new SkillLevel(skill, comparison, parseInt());
+				}
+				default:
+					throw error("Unknown condition '" + name + "'");
+			}
+		}
+
+		private Comparison parseComparison() {
+			if (accept("!=")) {
+				return Comparison.NE;
+			} else if (accept("<=")) {
+				return Comparison.LE;
+			} else if (accept(">=")) {
+				return Comparison.GE;
+			} else if (accept("<")) {
+				return Comparison.LT;
+			} else if (accept(">")) {
+				return Comparison.GT;
+			} else if (accept("=")) {
+				accept("=");
+				return Comparison.EQ;
+			}
+			throw error("Expected a comparison");
+		}
+
+		private int parseIntArgument() {
+			expect("(");
+			final int value = parseInt();
+			expect(")");
+			return value;
+		}
+
+		private int parseInt() {
+			skipWhitespace();
+			final int start = pos;
+			if (pos < source.length() && source.charAt(pos) == '-') {
+				pos++;
+			}
+			while (pos < source.length() && Character.isDigit(source.charAt(pos))) {
+				pos++;
+			}
+			try {
+				return Integer.parseInt(source.substring(start, pos));
+			} catch (NumberFormatException e) {
+				pos = start;
+				throw error("Expected a number");
+			}
+		}
+
+		private String parseWord() {
+			skipWhitespace();
+			final int start = pos;
+			while (pos < source.length()
+					&& (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+				pos++;
+			}
+			if (start == pos) {
+				throw error("Expected a condition");
+			}
+			return source.substring(start, pos);
+		}
+
+		private boolean accept(String token) {
+			skipWhitespace();
+			if (source.startsWith(token, pos)) {
+				pos += token.length();
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(String token) {
+			if (!accept(token)) {
+				throw error("Expected '" + token + "'");
+			}
+		}
+
+		void skipWhitespace() {
+			while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+				pos++;
+			}
+		}
+
+		boolean atEnd() {
+			return pos >= source.length();
+		}
+
+		char peek() {
+			return source.charAt(pos);
+		}
+
+		IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at position " + (pos + 1));
+		}
+	}
+}
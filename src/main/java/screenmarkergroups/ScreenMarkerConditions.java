@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The compiled visibility conditions of all groups, indexed by the inputs they
+ * depend on, so that a change of one input only tests the conditions reading
+ * it. Immutable; a new instance is built whenever a condition changes.
+ */
+class ScreenMarkerConditions {
+	static final ScreenMarkerConditions EMPTY = new ScreenMarkerConditions(Collections.emptyMap());
+
+	private final Map<String, ScreenMarkerCondition> conditions;
+	private final Map<ScreenMarkerCondition.Input, Map<Integer, List<String>>> dependents = new EnumMap<>(
+			ScreenMarkerCondition.Input.class);
+
+	private ScreenMarkerConditions(Map<String, ScreenMarkerCondition> conditions) {
+		this.conditions = conditions;
+		conditions.forEach((groupName, condition) -> condition.collectInputs((input, id) -> {
+			final List<String> groupNames = dependents.computeIfAbsent(input, k -> new HashMap<>())
+					.computeIfAbsent(id, k -> new ArrayList<>());
+			if (!groupNames.contains(groupName)) {
+				groupNames.add(groupName);
+			}
+		}));
+	}
+
+	/**
+	 * Compiles the conditions of the groups. Conditions that fail to compile are
+	 * left out, so those groups are shown unconditionally.
+	 *
+	 * @param sources The condition text of each group.
+	 * @return The compiled conditions.
+	 */
+	static ScreenMarkerConditions compile(Map<String, String> sources) {
+		if (sources.isEmpty()) {
+			return EMPTY;
+		}
+		final Map<String, ScreenMarkerCondition> conditions = new HashMap<>();
+		sources.forEach((groupName, source) -> {
+			try {
+				conditions.put(groupName, ScreenMarkerCondition.compile(source));
+			} catch (IllegalArgumentException e) {
+				// Skip the invalid condition
+			}
+		});
+		return new ScreenMarkerConditions(conditions);
+	}
+
+	/**
+	 * @return The names of all groups with a condition.
+	 */
+	Set<String> getGroupNames() {
+		return conditions.keySet();
+	}
+
+	/**
+	 * @param groupName The name of the group.
+	 * @return The group's condition, or null if it has none.
+	 */
+	ScreenMarkerCondition get(String groupName) {
+		return conditions.get(groupName);
+	}
+
+	/**
+	 * @param input The kind of input that changed.
+	 * @param id    The id of the changed varbit or skill; 0 for other inputs.
+	 * @return The groups whose condition depends on the input.
+	 */
+	List<String> getDependents(ScreenMarkerCondition.Input input, int id) {
+		final Map<Integer, List<String>> byId = dependents.get(input);
+		if (byId == null) {
+			return Collections.emptyList();
+		}
+		return byId.getOrDefault(id, Collections.emptyList());
+	}
+}
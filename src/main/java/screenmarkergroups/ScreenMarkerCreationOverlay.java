@@ -25,10 +25,8 @@
  */
 package screenmarkergroups;
 
-import java.awt.BasicStroke;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
-import java.awt.Stroke;
 import javax.inject.Inject;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
@@ -79,20 +77,10 @@ class ScreenMarkerCreationOverlay extends Overlay {
 		int width = getBounds().width - thickness;
 		int height = getBounds().height - thickness;
 
-		graphics.setStroke(createStripedStroke(thickness));
+		graphics.setStroke(ScreenMarkerRenderPool.stripedStroke(thickness));
 		graphics.setColor(marker.getColor());
 		graphics.drawRect(offset, offset, width, height);
 
 		return getBounds().getSize();
 	}
-
-	/**
-	 * Creates a dashed stroke style used for rendering the marker creation outline.
-	 *
-	 * @param thickness The desired thickness of the stroke.
-	 * @return A Stroke object configured with a dashed pattern.
-	 */
-	private Stroke createStripedStroke(int thickness) {
-		return new BasicStroke(thickness, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[] { 9 }, 0);
-	}
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Color;
+
+/**
+ * How a marker has to be drawn, determined once whenever the marker's style,
+ * bounds or the canvas size change, so that the render path can skip markers
+ * or parts of markers that would not produce any visible pixels.
+ */
+enum ScreenMarkerCullState {
+	/**
+	 * The marker lies entirely outside the client canvas.
+	 */
+	OFF_CANVAS,
+	/**
+	 * Neither the fill, the border nor the label would be visible.
+	 */
+	INVISIBLE_ALPHA,
+	/**
+	 * Only the border and/or the label are visible.
+	 */
+	BORDER_ONLY,
+	/**
+	 * Only the fill is visible.
+	 */
+	FILL_ONLY,
+	/**
+	 * Both the fill and the border are visible.
+	 */
+	FULL;
+
+	/**
+	 * @return True if markers in this state are skipped entirely.
+	 */
+	boolean isCulled() {
+		return this == OFF_CANVAS || this == INVISIBLE_ALPHA;
+	}
+
+	/**
+	 * Classifies a marker by its style alone, ignoring its position.
+	 *
+	 * @param marker The marker to classify.
+	 * @return The style-based state of the marker; never OFF_CANVAS.
+	 */
+	static ScreenMarkerCullState classifyStyle(ScreenMarker marker) {
+		final boolean colorVisible = isOpaque(marker.getColor());
+		final boolean borderVisible = colorVisible && marker.getBorderThickness() > 0;
+		// The label is drawn in the border color, even without a border
+		final boolean labelVisible = colorVisible && marker.isLabelled() && marker.getName() != null
+				&& !marker.getName().isEmpty();
+		final boolean fillVisible = isOpaque(marker.getFill());
+
+		if (fillVisible) {
+			return borderVisible || labelVisible ? FULL : FILL_ONLY;
+		}
+		return borderVisible || labelVisible ? BORDER_ONLY : INVISIBLE_ALPHA;
+	}
+
+	private static boolean isOpaque(Color color) {
+		return color != null && color.getAlpha() > 0;
+	}
+}
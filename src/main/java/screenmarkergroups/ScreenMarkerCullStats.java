@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.Arrays;
+
+/**
+ * Counts how many marker draws were performed and how many were skipped by
+ * culling, broken down by cull state. Written from the client thread only;
+ * readers on other threads may observe slightly stale values.
+ */
+class ScreenMarkerCullStats {
+	private final long[] culled = new long[ScreenMarkerCullState.values().length];
+	private long drawn;
+
+	void recordDrawn() {
+		drawn++;
+	}
+
+	void recordCulled(ScreenMarkerCullState state) {
+		culled[state.ordinal()]++;
+	}
+
+	/**
+	 * @return The number of markers drawn since the last reset.
+	 */
+	long getDrawn() {
+		return drawn;
+	}
+
+	/**
+	 * @return The number of markers skipped by culling since the last reset.
+	 */
+	long getCulled() {
+		long total = 0;
+		for (long count : culled) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * @param state The cull state to get the count for.
+	 * @return The number of markers skipped in the given state since the last
+	 *         reset.
+	 */
+	long getCulled(ScreenMarkerCullState state) {
+		return culled[state.ordinal()];
+	}
+
+	/**
+	 * Resets all counters to zero.
+	 */
+	void reset() {
+		drawn = 0;
+		Arrays.fill(culled, 0);
+	}
+
+	@Override
+	public String toString() {
+		return "drawn=" + drawn + ", culled=" + getCulled()
+				+ " (offCanvas=" + getCulled(ScreenMarkerCullState.OFF_CANVAS)
+				+ ", invisible=" + getCulled(ScreenMarkerCullState.INVISIBLE_ALPHA) + ")";
+	}
+}
@@ -27,6 +27,10 @@ package screenmarkergroups;
 import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
+import net.runelite.client.config.ConfigSection;
+import net.runelite.client.config.Keybind;
+import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
 /**
  * Configuration interface for the Screen Marker Groups plugin.
@@ -68,4 +72,203 @@ public interface ScreenMarkerGroupsConfig extends Config {
     default boolean importTrigger() {
         return false;
     }
+
+    /**
+     * Draws all markers from a single overlay instead of registering one overlay
+     * per marker. Individual marker overlays are only registered while Alt is
+     * held, so markers can still be moved and resized.
+     *
+     * @return true if batched rendering is enabled.
+     */
+    @ConfigItem(position = 2, keyName = "batchedRendering", name = "Batched rendering", description = "Draw all markers in a single pass. Markers become movable while Alt is held. Recommended for large numbers of markers.")
+    default boolean batchedRendering() {
+        return false;
+    }
+
+    /**
+     * In batched rendering mode, composites all markers into one canvas-sized
+     * image that is only redrawn when a marker or the canvas changes.
+     *
+     * @return true if the static marker layer is enabled.
+     */
+    @ConfigItem(position = 3, keyName = "staticMarkerLayer", name = "Static marker layer", description = "Draw markers into a single image that is only redrawn when a marker changes. Requires batched rendering.")
+    default boolean staticMarkerLayer() {
+        return false;
+    }
+
+    /**
+     * Draws markers from pre-rendered images shared between markers of the same
+     * style and size, instead of redrawing their shapes every frame.
+     *
+     * @return true if marker images should be cached.
+     */
+    @ConfigItem(position = 4, keyName = "cacheMarkerSprites", name = "Cache marker images", description = "Pre-render markers into images shared by markers with the same style and size.")
+    default boolean cacheMarkerSprites() {
+        return false;
+    }
+
+    /**
+     * The maximum number of distinct marker images kept by the image cache.
+     *
+     * @return The maximum number of cached images.
+     */
+    @Range(min = 1, max = 1024)
+    @ConfigItem(position = 5, keyName = "spriteCacheSize", name = "Image cache size", description = "Maximum number of distinct marker images kept when caching marker images.")
+    default int spriteCacheSize() {
+        return 128;
+    }
+
+    /**
+     * How long to wait after an edit before saving, so that rapid edits such as
+     * dragging the thickness spinner are written only once.
+     *
+     * @return The save delay in milliseconds.
+     */
+    @Range(max = 5000)
+    @Units(Units.MILLISECONDS)
+    @ConfigItem(position = 6, keyName = "saveDebounceMillis", name = "Save delay", description = "How long to wait after an edit before saving markers. Edits made within this window are saved together. Edits still pending when switching profiles are saved once that profile is active again.")
+    default int saveDebounceMillis() {
+        return 500;
+    }
+
+    /**
+     * Whether the sidebar should only create controls for the markers scrolled
+     * into view, keeping it responsive with thousands of markers.
+     *
+     * @return True if the marker list is virtualized.
+     */
+    @ConfigItem(position = 7, keyName = "virtualizedMarkerList", name = "Virtualized marker list", description = "Only create sidebar controls for markers scrolled into view. Recommended with thousands of markers. Group headers stick to the top while scrolling.")
+    default boolean virtualizedMarkerList() {
+        return false;
+    }
+
+    /**
+     * Whether markers are loaded on a background thread when the plugin starts,
+     * with the sidebar panel built the first time it is opened.
+     *
+     * @return True if the plugin starts asynchronously.
+     */
+    @ConfigItem(position = 8, keyName = "asyncStartup", name = "Load markers in background", description = "Load markers on a background thread when the client starts, and build the sidebar panel the first time it is opened. Speeds up client launch with many markers.")
+    default boolean asyncStartup() {
+        return false;
+    }
+
+    /**
+     * The number of recently used profiles whose markers are kept loaded, so
+     * switching back to one of them does not parse its markers again.
+     *
+     * @return The number of cached profiles, 0 to disable the cache.
+     */
+    @Range(max = 16)
+    @ConfigItem(position = 9, keyName = "profileCacheSize", name = "Profile cache size", description = "Number of recently used profiles whose markers are kept loaded, so switching back to them is instant. 0 disables the cache.")
+    default int profileCacheSize() {
+        return 3;
+    }
+
+    /**
+     * Shows the name and group of the marker under the mouse as a tooltip.
+     *
+     * @return true if marker tooltips are enabled.
+     */
+    @ConfigItem(position = 10, keyName = "markerTooltips", name = "Marker tooltips", description = "Show the name and group of the marker under the mouse.")
+    default boolean markerTooltips() {
+        return false;
+    }
+
+    /**
+     * Hotkey selecting the marker under the mouse in the panel.
+     *
+     * @return The hotkey.
+     */
+    @ConfigItem(position = 11, keyName = "selectMarkerHotkey", name = "Select marker hotkey", description = "Opens the panel and scrolls to the marker under the mouse.")
+    default Keybind selectMarkerHotkey() {
+        return Keybind.NOT_SET;
+    }
+
+    /**
+     * Named sets of visible groups, saved from the panel and applied with a
+     * hotkey.
+     */
+    @ConfigSection(position = 12, name = "Visibility presets", description = "Named sets of visible groups. Save a preset from the panel's preset menu, then apply it with its hotkey.")
+    String visibilityPresetsSection = "visibilityPresets";
+
+    /**
+     * The name of visibility preset 1, shown in the panel's preset menu.
+     *
+     * @return The preset name.
+     */
+    @ConfigItem(position = 1, keyName = "preset1Name", name = "Preset 1 name", description = "Name of visibility preset 1 in the panel's preset menu.", section = visibilityPresetsSection)
+    default String preset1Name() {
+        return "Preset 1";
+    }
+
+    /**
+     * The hotkey applying visibility preset 1.
+     *
+     * @return The hotkey.
+     */
+    @ConfigItem(position = 2, keyName = "preset1Hotkey", name = "Preset 1 hotkey", description = "Hotkey showing and hiding groups as saved in visibility preset 1.", section = visibilityPresetsSection)
+    default Keybind preset1Hotkey() {
+        return Keybind.NOT_SET;
+    }
+
+    /**
+     * The name of visibility preset 2, shown in the panel's preset menu.
+     *
+     * @return The preset name.
+     */
+    @ConfigItem(position = 3, keyName = "preset2Name", name = "Preset 2 name", description = "Name of visibility preset 2 in the panel's preset menu.", section = visibilityPresetsSection)
+    default String preset2Name() {
+        return "Preset 2";
+    }
+
+    /**
+     * The hotkey applying visibility preset 2.
+     *
+     * @return The hotkey.
+     */
+    @ConfigItem(position = 4, keyName = "preset2Hotkey", name = "Preset 2 hotkey", description = "Hotkey showing and hiding groups as saved in visibility preset 2.", section = visibilityPresetsSection)
+    default Keybind preset2Hotkey() {
+        return Keybind.NOT_SET;
+    }
+
+    /**
+     * The name of visibility preset 3, shown in the panel's preset menu.
+     *
+     * @return The preset name.
+     */
+    @ConfigItem(position = 5, keyName = "preset3Name", name = "Preset 3 name", description = "Name of visibility preset 3 in the panel's preset menu.", section = visibilityPresetsSection)
+    default String preset3Name() {
+        return "Preset 3";
+    }
+
+    /**
+     * The hotkey applying visibility preset 3.
+     *
+     * @return The hotkey.
+     */
+    @ConfigItem(position = 6, keyName = "preset3Hotkey", name = "Preset 3 hotkey", description = "Hotkey showing and hiding groups as saved in visibility preset 3.", section = visibilityPresetsSection)
+    default Keybind preset3Hotkey() {
+        return Keybind.NOT_SET;
+    }
+
+    /**
+     * The name of visibility preset 4, shown in the panel's preset menu.
+     *
+     * @return The preset name.
+     */
+    @ConfigItem(position = 7, keyName = "preset4Name", name = "Preset 4 name", description = "Name of visibility preset 4 in the panel's preset menu.", section = visibilityPresetsSection)
+    default String preset4Name() {
+        return "Preset 4";
+    }
+
+    /**
+     * The hotkey applying visibility preset 4.
+     *
+     * @return The hotkey.
+     */
+    @ConfigItem(position = 8, keyName = "preset4Hotkey", name = "Preset 4 hotkey", description = "Hotkey showing and hiding groups as saved in visibility preset 4.", section = visibilityPresetsSection)
+    default Keybind preset4Hotkey() {
+        return Keybind.NOT_SET;
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The small, frequently rewritten part of the persisted plugin state: the
+ * group order, each group's visibility and expansion state, the marker id
+ * counter, the visibility presets and the group regions and conditions. The
+ * markers of each group are stored separately under their own config key, so
+ * that editing one group does not rewrite every other group.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+class ScreenMarkerGroupsManifest {
+	/**
+	 * The display order of the groups. Lists every group, including groups
+	 * without markers, which have no config key of their own.
+	 */
+	private List<String> order;
+
+	/**
+	 * The visibility state of each group.
+	 */
+	private Map<String, Boolean> visibility;
+
+	/**
+	 * The expansion state of each group in the panel.
+	 */
+	private Map<String, Boolean> expansion;
+
+	/**
+	 * The id the next created marker will get. Null in manifests written before
+	 * ids were allocated from a persisted counter.
+	 */
+	private Long nextMarkerId;
+
+	/**
+	 * The saved visibility presets, indexed by preset slot. Each maps the groups
+	 * the preset covers to whether it shows them; null for a slot never saved.
+	 */
+	private List<Map<String, Boolean>> visibilityPresets;
+
+	/**
+	 * The map regions of each region-bound group. Groups without an entry are
+	 * shown everywhere.
+	 */
+	private Map<String, List<Integer>> regions;
+
+	/**
+	 * The visibility condition of each conditional group, in the condition
+	 * language of {@link ScreenMarkerCondition}.
+	 */
+	private Map<String, String> conditions;
+}
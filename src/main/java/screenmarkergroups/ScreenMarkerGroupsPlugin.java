@@ -29,20 +29,34 @@ package screenmarkergroups;
 
 import com.google.common.base.Strings;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import com.google.inject.Provides;
 import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
 import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.swing.JOptionPane;
@@ -50,10 +64,35 @@ import javax.swing.SwingUtilities;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.CanvasSizeChanged;
+import net.runelite.api.events.FocusChanged;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.InteractingChanged;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.PostMenuSort;
+import net.runelite.api.events.ResizeableChanged;
+import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.api.events.WidgetClosed;
+import net.runelite.api.events.WidgetLoaded;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.ConfigProfile;
+import net.runelite.client.config.Keybind;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.events.ProfileChanged;
+import net.runelite.client.input.KeyManager;
 import net.runelite.client.input.MouseManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
@@ -61,10 +100,12 @@ import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.ui.components.colorpicker.ColorPickerManager;
 import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.util.HotkeyListener;
 import net.runelite.client.util.ImageUtil;
 import screenmarkergroups.ui.ScreenMarkerGroupsPluginPanel;
 import screenmarkergroups.ui.ScreenMarkerGroupsCreationPanel;
 
+@Slf4j
 @PluginDescriptor(name = "Screen Marker Groups", description = "Enable drawing of screen markers on top of the client, organized into groups", tags = {
 		"boxes", "overlay", "panel", "group", "organize" })
 public class ScreenMarkerGroupsPlugin extends Plugin {
@@ -83,15 +124,22 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 
 	private static final String PLUGIN_NAME = "Screen Marker Groups";
 	private static final String CONFIG_GROUP = "screenmarkergroups";
-	private static final String CONFIG_KEY_MARKERS = "markerGroups";
-	private static final String CONFIG_KEY_ORDER = "groupOrder";
-	private static final String CONFIG_KEY_VISIBILITY = "groupVisibility";
-	private static final String CONFIG_KEY_EXPANSION = "groupExpansion";
+	private static final String CONFIG_KEY_MANIFEST = "groupManifest";
+	private static final String CONFIG_KEY_GROUP_PREFIX = "markerGroup_";
+	// Single-key layout used before groups were stored under their own keys
+	private static final String LEGACY_CONFIG_KEY_MARKERS = "markerGroups";
+	private static final String LEGACY_CONFIG_KEY_ORDER = "groupOrder";
+	private static final String LEGACY_CONFIG_KEY_VISIBILITY = "groupVisibility";
+	private static final String LEGACY_CONFIG_KEY_EXPANSION = "groupExpansion";
 	private static final String ICON_FILE = "panel_icon.png";
 	private static final String DEFAULT_MARKER_NAME = "Marker";
 	public static final Dimension DEFAULT_SIZE = new Dimension(2, 2);
 	public static final String UNASSIGNED_GROUP = "Unassigned";
 	public static final String IMPORTED_GROUP = "Imported";
+	private static final int IMPORT_PROGRESS_STEP = 100;
+	public static final int VISIBILITY_PRESET_COUNT = 4;
+	// About a minute of game ticks
+	private static final int CULL_STATS_LOG_TICKS = 100;
 
 	@Getter
 	private final Map<String, List<ScreenMarkerOverlay>> markerGroups = new ConcurrentHashMap<>();
@@ -102,12 +150,73 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	private final Map<String, Boolean> groupVisibilityStates = new ConcurrentHashMap<>();
 	private final Map<String, Boolean> groupExpansionStates = new ConcurrentHashMap<>();
 
+	/**
+	 * The saved visibility presets, indexed by preset slot; null for a slot never
+	 * saved.
+	 */
+	private final List<Map<String, Boolean>> visibilityPresets = new ArrayList<>(
+			Collections.nCopies(VISIBILITY_PRESET_COUNT, null));
+
+	// Presets compiled against compiledPresetOrder, recompiled once the group order changes
+	private final ScreenMarkerVisibilityPreset[] compiledPresets = new ScreenMarkerVisibilityPreset[VISIBILITY_PRESET_COUNT];
+	private List<String> compiledPresetOrder = Collections.emptyList();
+
+	private final List<HotkeyListener> presetHotkeyListeners = new ArrayList<>();
+
+	/**
+	 * The map regions each region-bound group is shown in. Groups without an
+	 * entry are shown everywhere.
+	 */
+	private final Map<String, List<Integer>> groupRegions = new ConcurrentHashMap<>();
+
+	// Inverted groupRegions, rebuilt whenever the regions of a group change
+	private volatile Map<Integer, List<String>> regionGroupIndex = Collections.emptyMap();
+
+	// Region-bound groups whose regions do not include the player's region
+	private final Set<String> outOfRegionGroups = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * The region the player is in, as last applied to the region-bound groups;
+	 * -1 while unknown.
+	 */
+	@Getter
+	private volatile int playerRegionId = -1;
+
+	/**
+	 * The visibility condition of each conditional group, as entered by the user.
+	 */
+	private final Map<String, String> groupConditions = new ConcurrentHashMap<>();
+
+	// groupConditions compiled and indexed by input, rebuilt whenever a condition changes
+	private volatile ScreenMarkerConditions conditions = ScreenMarkerConditions.EMPTY;
+
+	// Conditional groups whose condition does not hold, only written by the client thread
+	private final Set<String> conditionHiddenGroups = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Allocates marker ids and maps each id to the name of the group containing
+	 * it. Kept in sync with markerGroups so lookups are constant time.
+	 */
+	private final ScreenMarkerIdRegistry<String> markerIds = new ScreenMarkerIdRegistry<>();
+
+	@Inject
+	private Client client;
+
+	@Inject
+	private ClientThread clientThread;
+
 	@Inject
 	private ConfigManager configManager;
 
+	@Inject
+	private ScreenMarkerGroupsConfig config;
+
 	@Inject
 	private MouseManager mouseManager;
 
+	@Inject
+	private KeyManager keyManager;
+
 	@Inject
 	private ClientToolbar clientToolbar;
 
@@ -121,6 +230,63 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	@Inject
 	private Gson gson;
 
+	@Inject
+	private ScheduledExecutorService executor;
+
+	@Getter(AccessLevel.PACKAGE)
+	private ScreenMarkerSaveScheduler saveScheduler;
+
+	// Set while the legacy config keys still need to be removed after migrating
+	private boolean legacyConfigPending;
+
+	/**
+	 * Whether markers are being imported from the original plugin in the
+	 * background. Only accessed on the Swing thread.
+	 */
+	private boolean importInProgress;
+
+	/**
+	 * Incremented on shutdown and profile changes, so a background load or
+	 * import started before is dropped instead of being applied to the new
+	 * state.
+	 */
+	private volatile int stateGeneration;
+
+	/**
+	 * Whether the markers are still being loaded in the background after an
+	 * asynchronous startup.
+	 */
+	@Getter
+	private volatile boolean loading;
+
+	/**
+	 * The config values the current state was read from or last saved as, keyed
+	 * by config key. Carried into the profile cache when switching profiles.
+	 */
+	private volatile Map<String, String> configValues = Collections.synchronizedMap(new HashMap<>());
+
+	/**
+	 * Models of recently used profiles, for switching back to them without
+	 * parsing their config again.
+	 */
+	private final ScreenMarkerProfileCache profileCache = new ScreenMarkerProfileCache(0);
+
+	/**
+	 * Edits still pending when switching away from a profile, keyed by profile
+	 * id. The ConfigManager only writes to the active profile, so they are
+	 * written once their profile is active again.
+	 */
+	private final Map<Long, Map<String, Runnable>> deferredWrites = new ConcurrentHashMap<>();
+
+	// The id of the profile the current state belongs to
+	private Long activeProfileId;
+
+	/**
+	 * How long each stage of the last startup took.
+	 */
+	@Getter
+	private final ScreenMarkerStartupTimings startupTimings = new ScreenMarkerStartupTimings();
+
 	@Getter
 	@Inject
 	private ColorPickerManager colorPickerManager;
@@ -128,6 +294,108 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	@Inject
 	private ScreenMarkerWidgetHighlightOverlay widgetHighlight;
 
+	@Inject
+	private ScreenMarkerTooltipOverlay tooltipOverlay;
+
+	/**
+	 * Grid of the marker bounds, for finding the marker under the mouse.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private final ScreenMarkerSpatialIndex spatialIndex = new ScreenMarkerSpatialIndex();
+
+	/**
+	 * Whether the marker under the mouse is shown as a tooltip.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private volatile boolean markerTooltips;
+
+	private final HotkeyListener selectMarkerHotkeyListener = new HotkeyListener(() -> config.selectMarkerHotkey()) {
+		@Override
+		public void hotkeyPressed() {
+			selectMarkerUnderCursor();
+		}
+	};
+
+	@Inject
+	private ScreenMarkerBatchOverlay batchOverlay;
+
+	/**
+	 * Whether markers are drawn by the single batch overlay rather than by one
+	 * registered overlay per marker.
+	 */
+	private boolean batchedRendering;
+
+	/**
+	 * Whether Alt is currently held. While true, individual marker overlays are
+	 * registered even in batched mode so they can be moved and resized.
+	 */
+	private boolean managingOverlays;
+
+	/**
+	 * Whether the batch overlay composites markers into a static layer.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private boolean staticLayerEnabled;
+
+	/**
+	 * Whether the panel only creates components for the markers scrolled into
+	 * view.
+	 */
+	@Getter
+	private boolean virtualizedMarkerList;
+
+	/**
+	 * The most recently published render snapshot. Replaced after every edit;
+	 * the render path reads nothing else.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private volatile ScreenMarkerRenderSnapshot renderSnapshot = ScreenMarkerRenderSnapshot.EMPTY;
+
+	// Incremented when widget anchors moved markers without a new snapshot; only written by the client thread
+	private volatile int anchorLayoutVersion;
+
+	/**
+	 * Counts of drawn and culled markers, for verifying the effect of culling.
+	 * Logged at debug level and reset every {@link #CULL_STATS_LOG_TICKS} ticks.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private final ScreenMarkerCullStats cullStats = new ScreenMarkerCullStats();
+
+	private volatile int canvasWidth;
+	private volatile int canvasHeight;
+
+	/**
+	 * Incremented whenever the canvas size changes, so overlays know to repeat
+	 * their off-canvas check.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private volatile int canvasVersion;
+
+	@Getter(AccessLevel.PACKAGE)
+	private final ScreenMarkerSpriteCache spriteCache = new ScreenMarkerSpriteCache();
+
+	/**
+	 * Whether markers are drawn from the sprite cache.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private boolean spriteCacheEnabled;
+
+	private final KeyListener overlayManagingListener = new KeyAdapter() {
+		@Override
+		public void keyPressed(KeyEvent e) {
+			if (e.getKeyCode() == KeyEvent.VK_ALT) {
+				setOverlayManagingMode(true);
+			}
+		}
+
+		@Override
+		public void keyReleased(KeyEvent e) {
+			if (e.getKeyCode() == KeyEvent.VK_ALT) {
+				setOverlayManagingMode(false);
+			}
+		}
+	};
+
 	private ScreenMarkerMouseListener mouseListener;
 	@Getter
 	private ScreenMarkerGroupsPluginPanel pluginPanel;
@@ -144,9 +412,14 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	@Setter
 	private boolean drawingScreenMarker = false;
 
+	/**
+	 * The widget under the top menu entry while in creation mode. Written on the
+	 * client thread and read from the mouse listener.
+	 */
 	@Getter
-	@Setter
-	private Rectangle selectedWidgetBounds = null;
+	private volatile ScreenMarkerWidgetHighlightTracker.Selection selectedWidget = null;
+	private final ScreenMarkerWidgetHighlightTracker widgetHighlightTracker = new ScreenMarkerWidgetHighlightTracker();
+	private final ScreenMarkerWidgetAnchors widgetAnchors = new ScreenMarkerWidgetAnchors();
 	@Getter(AccessLevel.PACKAGE)
 	@Setter(AccessLevel.PACKAGE)
 	private Point startLocation = null;
@@ -161,17 +434,45 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	 */
 	@Override
 	protected void startUp() throws Exception {
+		final long start = System.nanoTime();
+		startupTimings.reset();
+		saveScheduler = new ScreenMarkerSaveScheduler(executor, this::captureConfig, config.saveDebounceMillis());
+		profileCache.setMaxSize(config.profileCacheSize());
+		activeProfileId = currentProfileId();
 		overlayManager.add(overlay);
 		overlayManager.add(widgetHighlight);
-		loadGroupsConfig();
-		// Add overlays respecting group visibility from loaded config
-		markerGroups.forEach((groupName, overlays) -> {
-			if (isGroupVisible(groupName)) {
-				overlays.forEach(overlayManager::add);
-			}
-		});
+		overlayManager.add(tooltipOverlay);
+		updateCanvasSize();
+		batchedRendering = config.batchedRendering();
+		staticLayerEnabled = config.staticMarkerLayer();
+		virtualizedMarkerList = config.virtualizedMarkerList();
+		markerTooltips = config.markerTooltips();
+		updateSpriteCacheConfig();
+		keyManager.registerKeyListener(overlayManagingListener);
+		keyManager.registerKeyListener(selectMarkerHotkeyListener);
+		for (int slot = 0; slot < VISIBILITY_PRESET_COUNT; slot++) {
+			final int presetSlot = slot;
+			final HotkeyListener listener = new HotkeyListener(() -> getVisibilityPresetHotkey(presetSlot)) {
+				@Override
+				public void hotkeyPressed() {
+					applyVisibilityPreset(presetSlot);
+				}
+			};
+			presetHotkeyListeners.add(listener);
+			keyManager.registerKeyListener(listener);
+		}
 		pluginPanel = new ScreenMarkerGroupsPluginPanel(this);
-		pluginPanel.rebuild();
+		if (config.asyncStartup()) {
+			loadGroupsConfigAsync();
+		} else {
+			final long parseStart = System.nanoTime();
+			final LoadedGroups loaded = readGroupsConfig();
+			recordStartupStage(ScreenMarkerStartupTimings.Stage.PARSE, parseStart);
+			finishLoading(loaded);
+			final long panelStart = System.nanoTime();
+			pluginPanel.rebuild();
+			recordStartupStage(ScreenMarkerStartupTimings.Stage.PANEL, panelStart);
+		}
 		final BufferedImage icon = ImageUtil.loadImageResource(getClass(), "/" + ICON_FILE);
 		navigationButton = NavigationButton.builder()
 				.tooltip(PLUGIN_NAME)
@@ -181,6 +482,74 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 				.build();
 		clientToolbar.addNavigation(navigationButton);
 		mouseListener = new ScreenMarkerMouseListener(this);
+		recordStartupStage(ScreenMarkerStartupTimings.Stage.STARTUP, start);
+	}
+
+	/**
+	 * Reads the config on the background executor and installs the loaded groups
+	 * on the Swing thread once done. Until then the panel shows that markers are
+	 * loading, and it is not built before it is first opened. If the config
+	 * fails to load, the failure is logged and the plugin starts without markers
+	 * rather than parsing the config again on the Swing thread.
+	 */
+	private void loadGroupsConfigAsync() {
+		loading = true;
+		pluginPanel.setLoading(true);
+		pluginPanel.deferRebuild();
+		final int generation = stateGeneration;
+		executor.execute(() -> {
+			final long parseStart = System.nanoTime();
+			LoadedGroups loaded;
+			try {
+				loaded = readGroupsConfig();
+			} catch (Exception e) {
+				log.warn("Failed to load the screen marker groups", e);
+				loaded = LoadedGroups.empty();
+			}
+			recordStartupStage(ScreenMarkerStartupTimings.Stage.PARSE, parseStart);
+
+			final LoadedGroups result = loaded;
+			SwingUtilities.invokeLater(() -> {
+				// Shut down or switched profiles, which loaded the new state itself
+				if (generation != stateGeneration) {
+					return;
+				}
+				finishLoading(result);
+				loading = false;
+				pluginPanel.setLoading(false);
+				pluginPanel.rebuild();
+			});
+		});
+	}
+
+	/**
+	 * Records how long a stage of startup took, and logs the timings of all
+	 * stages once the last of them finished. In asynchronous mode the panel is
+	 * only built when first opened, so the timings are logged then.
+	 *
+	 * @param stage      The stage that finished.
+	 * @param startNanos The {@link System#nanoTime()} the stage started at.
+	 */
+	public void recordStartupStage(ScreenMarkerStartupTimings.Stage stage, long startNanos) {
+		if (startupTimings.record(stage, startNanos)) {
+			log.debug("Startup timings: {}", startupTimings);
+		}
+	}
+
+	/**
+	 * Installs loaded groups as the plugin state and registers their overlays in
+	 * one pass.
+	 *
+	 * @param loaded The loaded groups.
+	 */
+	private void finishLoading(LoadedGroups loaded) {
+		final long applyStart = System.nanoTime();
+		applyGroupsConfig(loaded);
+		recordStartupStage(ScreenMarkerStartupTimings.Stage.APPLY, applyStart);
+
+		final long overlaysStart = System.nanoTime();
+		registerMarkerOverlays();
+		recordStartupStage(ScreenMarkerStartupTimings.Stage.OVERLAYS, overlaysStart);
 	}
 
 	/**
@@ -191,13 +560,42 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	 */
 	@Override
 	protected void shutDown() throws Exception {
+		saveScheduler.flush();
+		log.debug("Config saves: {} requested, {} written, {} deferred", saveScheduler.getWritesRequested(),
+				saveScheduler.getWritesPerformed(), saveScheduler.getWritesTaken());
+		if (!deferredWrites.isEmpty()) {
+			log.warn("Discarding unsaved marker edits of inactive profiles {}", deferredWrites.keySet());
+			deferredWrites.clear();
+		}
+		stateGeneration++;
+		loading = false;
 		overlayManager.remove(overlay);
 		overlayManager.remove(widgetHighlight);
+		overlayManager.remove(tooltipOverlay);
+		overlayManager.remove(batchOverlay);
+		batchOverlay.clearStaticLayer();
 		overlayManager.removeIf(ScreenMarkerOverlay.class::isInstance);
+		keyManager.unregisterKeyListener(overlayManagingListener);
+		keyManager.unregisterKeyListener(selectMarkerHotkeyListener);
+		presetHotkeyListeners.forEach(keyManager::unregisterKeyListener);
+		presetHotkeyListeners.clear();
+		managingOverlays = false;
+		spriteCache.clear();
+		log.debug("Marker culling: {}", cullStats);
+		cullStats.reset();
+		renderSnapshot = ScreenMarkerRenderSnapshot.EMPTY;
 		markerGroups.clear();
+		markerIds.clear();
+		spatialIndex.clear();
 		groupOrderList.clear();
 		groupVisibilityStates.clear();
 		groupExpansionStates.clear();
+		clearVisibilityPresets();
+		clearGroupRegions();
+		clearGroupConditions();
+		playerRegionId = -1;
+		profileCache.clear();
+		activeProfileId = null;
 		clientToolbar.removeNavigation(navigationButton);
 		setMouseListenerEnabled(false);
 		creatingScreenMarker = false;
@@ -206,128 +604,558 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 		currentMarker = null;
 		mouseListener = null;
 		navigationButton = null;
-		selectedWidgetBounds = null;
+		selectedWidget = null;
+		widgetAnchors.clear();
+		saveScheduler = null;
 	}
 
 	/**
 	 * Handles the RuneLite ProfileChanged event. Clears current state and reloads
 	 * configuration for the new profile. Ensures overlays and UI reflect the
 	 * profile's settings.
+	 * Unsaved edits are not written now: the event is posted after the switch,
+	 * so writing them would store them in the new profile, and the ConfigManager
+	 * offers no way to write to the previous profile. They are captured instead
+	 * and written once the previous profile is active again, before its state is
+	 * loaded. Pending edits are also flushed as soon as the panel is closed,
+	 * which happens when the profile panel is opened to switch.
+	 * The state of the previous profile is kept in the profile cache, and the
+	 * new profile's cached state is swapped in if its config has not changed
+	 * since.
 	 *
 	 * @param profileChanged The event object associated with the profile change.
 	 */
 	@Subscribe
 	public void onProfileChanged(ProfileChanged profileChanged) {
+		final Map<String, Runnable> pendingWrites = saveScheduler.takePending();
+		if (!pendingWrites.isEmpty()) {
+			// Keeps the cached model from being reused until the writes replace these
+			pendingWrites.keySet().forEach(key -> configValues.put(key, ScreenMarkerProfileCache.UNSAVED));
+			if (activeProfileId != null) {
+				deferredWrites.merge(activeProfileId, pendingWrites, (older, newer) -> {
+					older.putAll(newer);
+					return older;
+				});
+			} else {
+				log.warn("Discarding unsaved marker edits made without an active profile");
+			}
+		}
+		stateGeneration++;
 		overlayManager.removeIf(ScreenMarkerOverlay.class::isInstance);
+		// A state still being loaded in the background is incomplete
+		if (!loading && activeProfileId != null) {
+			profileCache.put(activeProfileId, new ScreenMarkerProfileCache.Model(
+					new HashMap<>(markerGroups),
+					new ArrayList<>(groupOrderList),
+					new HashMap<>(groupVisibilityStates),
+					new HashMap<>(groupExpansionStates),
+					new ArrayList<>(visibilityPresets),
+					new HashMap<>(groupRegions),
+					new HashMap<>(groupConditions),
+					markerIds.getNextId(),
+					configValues));
+		}
 		markerGroups.clear();
+		markerIds.clear();
+		spatialIndex.clear();
 		groupOrderList.clear();
 		groupVisibilityStates.clear();
 		groupExpansionStates.clear();
-		loadGroupsConfig();
-		// Re-add overlays respecting group visibility
-		markerGroups.forEach((groupName, overlays) -> {
-			if (isGroupVisible(groupName)) {
-				overlays.forEach(overlayManager::add);
-			}
-		});
+		clearVisibilityPresets();
+		clearGroupRegions();
+		clearGroupConditions();
+
+		activeProfileId = currentProfileId();
+		final Map<String, Runnable> writes = activeProfileId != null ? deferredWrites.remove(activeProfileId) : null;
+		if (writes != null) {
+			writes.values().forEach(Runnable::run);
+		}
+		final ScreenMarkerProfileCache.Model cached = activeProfileId != null ? profileCache.take(activeProfileId)
+				: null;
+		if (cached != null && cached.matches(key -> configManager.getConfiguration(CONFIG_GROUP, key))) {
+			applyCachedModel(cached);
+		} else {
+			loadGroupsConfig();
+		}
+		registerMarkerOverlays();
+		// Ends a background load still running from startup
+		loading = false;
 		if (pluginPanel != null) {
-			SwingUtilities.invokeLater(pluginPanel::rebuild);
+			SwingUtilities.invokeLater(() -> {
+				pluginPanel.setLoading(false);
+				pluginPanel.rebuild();
+			});
 		}
 	}
 
 	/**
-	 * Registers or unregisters the mouse listener responsible for handling
-	 * screen marker creation clicks and drags.
+	 * Replaces the current state with a model taken from the profile cache. The
+	 * model's overlays are reused as they are.
 	 *
-	 * @param enabled True to register the listener, false to unregister.
+	 * @param model The cached model of the now active profile.
 	 */
-	public void setMouseListenerEnabled(boolean enabled) {
-		if (enabled) {
-			mouseManager.registerMouseListener(mouseListener);
-		} else {
-			mouseManager.unregisterMouseListener(mouseListener);
+	private void applyCachedModel(ScreenMarkerProfileCache.Model model) {
+		legacyConfigPending = false;
+		model.getGroups().forEach((groupName, overlayList) -> {
+			markerGroups.put(groupName, overlayList);
+			overlayList.forEach(overlay -> indexMarker(overlay, groupName));
+		});
+		markerIds.restore(model.getNextMarkerId());
+		groupOrderList.addAll(model.getOrder());
+		groupVisibilityStates.putAll(model.getVisibility());
+		groupExpansionStates.putAll(model.getExpansion());
+		for (int slot = 0; slot < VISIBILITY_PRESET_COUNT; slot++) {
+			visibilityPresets.set(slot, model.getVisibilityPresets().get(slot));
 		}
+		groupRegions.putAll(model.getRegions());
+		rebuildRegionIndex();
+		groupConditions.putAll(model.getConditions());
+		rebuildConditions();
+		configValues = model.getConfigValues();
 	}
 
 	/**
-	 * Enters the marker creation mode, preparing the plugin and UI.
-	 * Called from the UI (+ button).
-	 *
-	 * @param groupName The target group for the new marker.
+	 * @return The id of the active RuneLite profile, or null if there is none.
 	 */
-	public void enterCreationMode(String groupName) {
-		this.targetGroupNameForCreation = markerGroups.containsKey(groupName) ? groupName : UNASSIGNED_GROUP;
-		this.creatingScreenMarker = true;
-		this.setMouseListenerEnabled(true);
-		this.currentMarker = null;
-		this.startLocation = null;
-		this.drawingScreenMarker = false;
-		this.selectedWidgetBounds = null;
-
-		overlay.setPreferredLocation(null);
-		overlay.setPreferredSize(null);
+	private Long currentProfileId() {
+		final ConfigProfile profile = configManager.getProfile();
+		return profile != null ? profile.getId() : null;
+	}
 
-		if (pluginPanel != null) {
-			pluginPanel.setCreation(true);
+	/**
+	 * Handles the FocusChanged event. Leaves overlay managing mode when the client
+	 * loses focus, as the Alt release will not be delivered to us.
+	 *
+	 * @param focusChanged The focus change event.
+	 */
+	@Subscribe
+	public void onFocusChanged(FocusChanged focusChanged) {
+		if (!focusChanged.isFocused()) {
+			setOverlayManagingMode(false);
 		}
 	}
 
 	/**
-	 * Prepares a new marker object and sets the initial bounds for the creation
-	 * overlay.
-	 * Called by the mouse listener on the first click/drag or when clicking a
-	 * widget.
+	 * Handles the CanvasSizeChanged event, e.g. after switching between fixed and
+	 * resizable mode, so markers outside the new canvas are culled.
 	 *
-	 * @param location The initial location for the marker.
-	 * @param size     The initial size for the marker.
+	 * @param canvasSizeChanged The canvas size change event.
 	 */
-	public void startCreation(Point location, Dimension size) {
-		if (currentMarker != null || location == null) {
+	@Subscribe
+	public void onCanvasSizeChanged(CanvasSizeChanged canvasSizeChanged) {
+		updateCanvasSize();
+		widgetHighlightTracker.invalidate();
+		widgetAnchors.invalidate();
+	}
+
+	/**
+	 * Records the top menu entry once the menu has been rebuilt and sorted, so
+	 * the widget highlight can tell when the hovered widget changes. Runs after
+	 * the default priority, so entries reordered by other plugins are seen.
+	 *
+	 * @param postMenuSort The post menu sort event.
+	 */
+	@Subscribe(priority = -1)
+	public void onPostMenuSort(PostMenuSort postMenuSort) {
+		if (!creatingScreenMarker || drawingScreenMarker || client.isMenuOpen()) {
 			return;
 		}
+		final MenuEntry[] menuEntries = client.getMenuEntries();
+		if (menuEntries.length == 0) {
+			widgetHighlightTracker.topEntryChanged(-1, -1);
+		} else {
+			final MenuEntry topEntry = menuEntries[menuEntries.length - 1];
+			widgetHighlightTracker.topEntryChanged(topEntry.getParam0(), topEntry.getParam1());
+		}
+	}
 
-		long nextMarkerId = findMaxMarkerId() + 1;
+	/**
+	 * Handles the WidgetLoaded event; widget bounds may have moved.
+	 *
+	 * @param widgetLoaded The widget loaded event.
+	 */
+	@Subscribe
+	public void onWidgetLoaded(WidgetLoaded widgetLoaded) {
+		widgetHighlightTracker.invalidate();
+		widgetAnchors.invalidate();
+	}
 
-		// Determine the target group name, defaulting to UNASSIGNED_GROUP if null
-		String targetGroup = targetGroupNameForCreation != null ? targetGroupNameForCreation : UNASSIGNED_GROUP;
-		// Calculate the next marker number within the target group
-		int nextMarkerNumberInGroup = markerGroups.getOrDefault(targetGroup, Collections.emptyList()).size() + 1;
+	/**
+	 * Handles the WidgetClosed event; the highlighted widget may be gone.
+	 *
+	 * @param widgetClosed The widget closed event.
+	 */
+	@Subscribe
+	public void onWidgetClosed(WidgetClosed widgetClosed) {
+		widgetHighlightTracker.invalidate();
+	}
 
-		currentMarker = new ScreenMarker(
-				nextMarkerId,
-				DEFAULT_MARKER_NAME + " " + nextMarkerNumberInGroup, // Use group-specific count for default name
-				ScreenMarkerGroupsPluginPanel.SELECTED_BORDER_THICKNESS,
-				ScreenMarkerGroupsPluginPanel.SELECTED_COLOR,
-				ScreenMarkerGroupsPluginPanel.SELECTED_FILL_COLOR,
-				true,
-				false,
-				null);
-		startLocation = location;
-		overlay.setPreferredLocation(location);
-		overlay.setPreferredSize(size != null ? size : DEFAULT_SIZE);
-		drawingScreenMarker = true;
+	/**
+	 * Handles the ResizeableChanged event; the widget layout is replaced.
+	 *
+	 * @param resizeableChanged The resizeable changed event.
+	 */
+	@Subscribe
+	public void onResizeableChanged(ResizeableChanged resizeableChanged) {
+		widgetHighlightTracker.invalidate();
+		widgetAnchors.invalidate();
 	}
 
 	/**
-	 * Finalizes the screen marker creation process. If not aborted, it creates
-	 * the marker overlay, adds it to the target group, saves the configuration,
-	 * and updates the UI. Resets the creation state regardless of outcome.
+	 * Moves widget-anchored markers and refreshes the highlighted widget before
+	 * each frame, but only after the widget tree, the canvas, the markers or the
+	 * top menu entry changed.
 	 *
-	 * @param aborted True if the creation process was cancelled, false otherwise.
+	 * @param beforeRender The before render event.
 	 */
-	public void finishCreation(boolean aborted) {
-		ScreenMarker marker = currentMarker;
-		String targetGroup = targetGroupNameForCreation != null ? targetGroupNameForCreation : UNASSIGNED_GROUP;
-		Rectangle overlayBounds = overlay.getBounds();
+	@Subscribe
+	public void onBeforeRender(BeforeRender beforeRender) {
+		if (widgetAnchors.update(client, renderSnapshot)) {
+			anchorLayoutVersion++;
+		}
 
-		if (!aborted && marker != null && overlayBounds != null && overlayBounds.width > 0
-				&& overlayBounds.height > 0) {
-			final ScreenMarkerOverlay screenMarkerOverlay = new ScreenMarkerOverlay(marker, this);
-			screenMarkerOverlay.setPreferredLocation(overlayBounds.getLocation());
-			screenMarkerOverlay.setPreferredSize(overlayBounds.getSize());
+		if (!creatingScreenMarker || drawingScreenMarker) {
+			return;
+		}
+		if (widgetHighlightTracker.isStale(client.isMenuOpen())) {
+			selectedWidget = widgetHighlightTracker.resolve(client);
+		}
+	}
 
-			List<ScreenMarkerOverlay> groupList = markerGroups.computeIfAbsent(targetGroup, k -> new ArrayList<>());
-			groupList.add(screenMarkerOverlay);
+	/**
+	 * Checks once per game tick whether the player entered another map region,
+	 * and if so hands the change to the Swing thread, which owns the groups.
+	 * Periodically logs and resets the culling counts.
+	 *
+	 * @param gameTick The game tick event.
+	 */
+	@Subscribe
+	public void onGameTick(GameTick gameTick) {
+		if (client.getTickCount() % CULL_STATS_LOG_TICKS == 0) {
+			log.debug("Marker culling: {}", cullStats);
+			cullStats.reset();
+		}
+
+		final Player player = client.getLocalPlayer();
+		if (player == null) {
+			return;
+		}
+
+		final int regionId = WorldPoint.fromLocalInstance(client, player.getLocalLocation()).getRegionID();
+		if (regionId != playerRegionId) {
+			SwingUtilities.invokeLater(() -> setPlayerRegion(regionId));
+		}
+	}
+
+	/**
+	 * Tests the group conditions depending on a changed varbit.
+	 *
+	 * @param varbitChanged The varbit changed event.
+	 */
+	@Subscribe
+	public void onVarbitChanged(VarbitChanged varbitChanged) {
+		if (varbitChanged.getVarbitId() != -1) {
+			conditionInputChanged(ScreenMarkerCondition.Input.VARBIT, varbitChanged.getVarbitId());
+		}
+	}
+
+	/**
+	 * Tests the group conditions depending on the inventory or equipment.
+	 *
+	 * @param itemContainerChanged The item container changed event.
+	 */
+	@Subscribe
+	public void onItemContainerChanged(ItemContainerChanged itemContainerChanged) {
+		final int containerId = itemContainerChanged.getContainerId();
+		if (containerId == InventoryID.INVENTORY.getId()) {
+			conditionInputChanged(ScreenMarkerCondition.Input.INVENTORY, 0);
+		} else if (containerId == InventoryID.EQUIPMENT.getId()) {
+			conditionInputChanged(ScreenMarkerCondition.Input.EQUIPMENT, 0);
+		}
+	}
+
+	/**
+	 * Tests the group conditions depending on a changed skill.
+	 *
+	 * @param statChanged The stat changed event.
+	 */
+	@Subscribe
+	public void onStatChanged(StatChanged statChanged) {
+		conditionInputChanged(ScreenMarkerCondition.Input.SKILL, statChanged.getSkill().ordinal());
+	}
+
+	/**
+	 * Tests the group conditions depending on the player's interaction target.
+	 *
+	 * @param interactingChanged The interacting changed event.
+	 */
+	@Subscribe
+	public void onInteractingChanged(InteractingChanged interactingChanged) {
+		if (interactingChanged.getSource() == client.getLocalPlayer()) {
+			conditionInputChanged(ScreenMarkerCondition.Input.INTERACTING, 0);
+		}
+	}
+
+	/**
+	 * Tests all group conditions again after logging in, as the game state they
+	 * read is only known once logged in.
+	 *
+	 * @param gameStateChanged The game state changed event.
+	 */
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged gameStateChanged) {
+		if (gameStateChanged.getGameState() == GameState.LOGGED_IN) {
+			evaluateAllConditions();
+		}
+	}
+
+	/**
+	 * Reads the current canvas size from the client.
+	 */
+	private void updateCanvasSize() {
+		canvasWidth = client.getCanvasWidth();
+		canvasHeight = client.getCanvasHeight();
+		canvasVersion++;
+	}
+
+	/**
+	 * Checks whether a rectangle lies entirely outside the client canvas. Always
+	 * false while the canvas size is unknown.
+	 *
+	 * @return True if no part of the rectangle is on the canvas.
+	 */
+	boolean isOffCanvas(int x, int y, int width, int height) {
+		final int cw = canvasWidth;
+		final int ch = canvasHeight;
+		if (cw <= 0 || ch <= 0) {
+			return false;
+		}
+		return x >= cw || y >= ch || x + width <= 0 || y + height <= 0;
+	}
+
+	/**
+	 * Registers marker overlays with the OverlayManager according to the current
+	 * rendering mode. In batched mode only the batch overlay is registered, unless
+	 * Alt is held; otherwise every marker gets its own overlay.
+	 * Marker overlays stay registered while their group is hidden, since hiding a
+	 * group is part of the render state. Toggling a group therefore never adds or
+	 * removes overlays, each of which would make the OverlayManager re-sort.
+	 */
+	private void registerMarkerOverlays() {
+		overlayManager.removeIf(ScreenMarkerOverlay.class::isInstance);
+		overlayManager.remove(batchOverlay);
+		// Markers may have been moved or resized while registered individually
+		publishRenderSnapshot();
+
+		if (batchedRendering && !managingOverlays) {
+			overlayManager.add(batchOverlay);
+			return;
+		}
+
+		markerGroups.values().forEach(overlays -> overlays.forEach(overlayManager::add));
+	}
+
+	/**
+	 * Registers a single marker overlay with the OverlayManager, unless it is
+	 * currently drawn by the batch overlay instead.
+	 *
+	 * @param markerOverlay The overlay to register.
+	 */
+	private void addMarkerOverlay(ScreenMarkerOverlay markerOverlay) {
+		if (!batchedRendering || managingOverlays) {
+			overlayManager.add(markerOverlay);
+		}
+	}
+
+	/**
+	 * Applies the sprite cache settings from the config. Disabling the cache drops
+	 * every cached image.
+	 */
+	private void updateSpriteCacheConfig() {
+		spriteCacheEnabled = config.cacheMarkerSprites();
+		spriteCache.setMaxEntries(config.spriteCacheSize());
+		if (!spriteCacheEnabled) {
+			spriteCache.clear();
+			markerGroups.values().forEach(overlays -> overlays.forEach(ScreenMarkerOverlay::invalidateRenderState));
+		}
+	}
+
+	/**
+	 * Notifies the plugin that a marker's properties were edited, so any cached
+	 * render state for it is refreshed.
+	 *
+	 * @param markerOverlay The overlay of the edited marker.
+	 */
+	public void markerUpdated(ScreenMarkerOverlay markerOverlay) {
+		markerOverlay.invalidateRenderState();
+		publishRenderSnapshot();
+	}
+
+	/**
+	 * Publishes a new render snapshot after the set of drawn markers, their order
+	 * or their appearance changed. Render states are only recreated for markers
+	 * that were edited or whose group visibility changed.
+	 */
+	private void publishRenderSnapshot() {
+		final List<ScreenMarkerRenderState> visibleMarkers = new ArrayList<>();
+		final List<ScreenMarkerRenderState> anchoredMarkers = new ArrayList<>();
+		for (String groupName : groupOrderList) {
+			final List<ScreenMarkerOverlay> overlays = markerGroups.get(groupName);
+			if (overlays == null) {
+				continue;
+			}
+			final boolean groupVisible = isGroupVisible(groupName) && !outOfRegionGroups.contains(groupName)
+					&& !conditionHiddenGroups.contains(groupName);
+			for (ScreenMarkerOverlay markerOverlay : overlays) {
+				final ScreenMarkerRenderState state = markerOverlay.updateRenderState(groupVisible);
+				if (state.isVisible()) {
+					visibleMarkers.add(state);
+					if (state.getAnchor() != null) {
+						anchoredMarkers.add(state);
+					}
+				}
+			}
+		}
+		renderSnapshot = new ScreenMarkerRenderSnapshot(renderSnapshot.getVersion() + 1,
+				Collections.unmodifiableList(visibleMarkers), Collections.unmodifiableList(anchoredMarkers));
+	}
+
+	/**
+	 * Returns a version that changes whenever the drawn markers change, either
+	 * through a new render snapshot or because widget anchors moved markers.
+	 * Both counters only increase, so their sum changes whenever either does.
+	 *
+	 * @return The current render version.
+	 */
+	int getRenderVersion() {
+		return renderSnapshot.getVersion() + anchorLayoutVersion;
+	}
+
+	/**
+	 * Enters or leaves overlay managing mode (Alt held). In batched mode this swaps
+	 * the batch overlay for the individual marker overlays and back.
+	 *
+	 * @param managing True if Alt is held.
+	 */
+	private void setOverlayManagingMode(boolean managing) {
+		if (managingOverlays == managing) {
+			return;
+		}
+		managingOverlays = managing;
+		if (batchedRendering) {
+			registerMarkerOverlays();
+		}
+	}
+
+	/**
+	 * Registers or unregisters the mouse listener responsible for handling
+	 * screen marker creation clicks and drags.
+	 *
+	 * @param enabled True to register the listener, false to unregister.
+	 */
+	public void setMouseListenerEnabled(boolean enabled) {
+		if (enabled) {
+			mouseManager.registerMouseListener(mouseListener);
+		} else {
+			mouseManager.unregisterMouseListener(mouseListener);
+		}
+	}
+
+	/**
+	 * Enters the marker creation mode, preparing the plugin and UI.
+	 * Called from the UI (+ button).
+	 *
+	 * @param groupName The target group for the new marker.
+	 */
+	public void enterCreationMode(String groupName) {
+		this.targetGroupNameForCreation = markerGroups.containsKey(groupName) ? groupName : UNASSIGNED_GROUP;
+		this.creatingScreenMarker = true;
+		this.setMouseListenerEnabled(true);
+		this.currentMarker = null;
+		this.startLocation = null;
+		this.drawingScreenMarker = false;
+		this.selectedWidget = null;
+		widgetHighlightTracker.invalidate();
+
+		overlay.setPreferredLocation(null);
+		overlay.setPreferredSize(null);
+
+		if (pluginPanel != null) {
+			pluginPanel.setCreation(true);
+		}
+	}
+
+	/**
+	 * Prepares a new marker object and sets the initial bounds for the creation
+	 * overlay.
+	 * Called by the mouse listener on the first click/drag or when clicking a
+	 * widget.
+	 *
+	 * @param location The initial location for the marker.
+	 * @param size     The initial size for the marker.
+	 */
+	public void startCreation(Point location, Dimension size) {
+		startCreation(location, size, null);
+	}
+
+	/**
+	 * Prepares a new marker object, optionally anchored to the clicked widget so
+	 * it follows that widget when the interface layout changes.
+	 *
+	 * @param location The initial location for the marker.
+	 * @param size     The initial size for the marker.
+	 * @param anchor   The widget to anchor the marker to, or null.
+	 */
+	void startCreation(Point location, Dimension size, ScreenMarkerWidgetAnchor anchor) {
+		if (currentMarker != null || location == null) {
+			return;
+		}
+
+		long nextMarkerId = markerIds.allocate();
+
+		// Determine the target group name, defaulting to UNASSIGNED_GROUP if null
+		String targetGroup = targetGroupNameForCreation != null ? targetGroupNameForCreation : UNASSIGNED_GROUP;
+		// Calculate the next marker number within the target group
+		int nextMarkerNumberInGroup = markerGroups.getOrDefault(targetGroup, Collections.emptyList()).size() + 1;
+
+		currentMarker = new ScreenMarker(
+				nextMarkerId,
+				DEFAULT_MARKER_NAME + " " + nextMarkerNumberInGroup, // Use group-specific count for default name
+				ScreenMarkerGroupsPluginPanel.SELECTED_BORDER_THICKNESS,
+				ScreenMarkerGroupsPluginPanel.SELECTED_COLOR,
+				ScreenMarkerGroupsPluginPanel.SELECTED_FILL_COLOR,
+				true,
+				false,
+				null,
+				anchor != null ? anchor.getWidgetId() : null,
+				anchor != null ? anchor.getChildIndex() : null);
+		startLocation = location;
+		overlay.setPreferredLocation(location);
+		overlay.setPreferredSize(size != null ? size : DEFAULT_SIZE);
+		drawingScreenMarker = true;
+	}
+
+	/**
+	 * Finalizes the screen marker creation process. If not aborted, it creates
+	 * the marker overlay, adds it to the target group, saves the configuration,
+	 * and updates the UI. Resets the creation state regardless of outcome.
+	 *
+	 * @param aborted True if the creation process was cancelled, false otherwise.
+	 */
+	public void finishCreation(boolean aborted) {
+		ScreenMarker marker = currentMarker;
+		String targetGroup = targetGroupNameForCreation != null ? targetGroupNameForCreation : UNASSIGNED_GROUP;
+		Rectangle overlayBounds = overlay.getBounds();
+
+		if (!aborted && marker != null && overlayBounds != null && overlayBounds.width > 0
+				&& overlayBounds.height > 0) {
+			final ScreenMarkerOverlay screenMarkerOverlay = new ScreenMarkerOverlay(marker, this);
+			screenMarkerOverlay.setPreferredLocation(overlayBounds.getLocation());
+			screenMarkerOverlay.setPreferredSize(overlayBounds.getSize());
+
+			List<ScreenMarkerOverlay> groupList = markerGroups.computeIfAbsent(targetGroup, k -> new ArrayList<>());
+			groupList.add(screenMarkerOverlay);
+			indexMarker(screenMarkerOverlay, targetGroup);
 
 			if (!groupOrderList.contains(targetGroup)) {
 				int insertIndex = calculateGroupInsertIndex();
@@ -340,17 +1168,17 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 				ensureSpecialGroupsOrder();
 			}
 			overlayManager.saveOverlay(screenMarkerOverlay);
-			if (isGroupVisible(targetGroup)) {
-				overlayManager.add(screenMarkerOverlay);
-			}
-			updateGroupsConfig();
+			addMarkerOverlay(screenMarkerOverlay);
+			publishRenderSnapshot();
+			updateGroupConfig(targetGroup);
+			updateManifestConfig();
 		} else {
 			aborted = true;
 		}
 
 		creatingScreenMarker = false;
 		drawingScreenMarker = false;
-		selectedWidgetBounds = null;
+		selectedWidget = null;
 		startLocation = null;
 		currentMarker = null;
 		targetGroupNameForCreation = null;
@@ -387,17 +1215,14 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	 * @param markerToDelete The overlay instance to delete.
 	 */
 	public void deleteMarker(final ScreenMarkerOverlay markerToDelete) {
-		boolean removed = false;
-		for (List<ScreenMarkerOverlay> groupList : markerGroups.values()) {
-			if (groupList.remove(markerToDelete)) {
-				removed = true;
-				break;
-			}
-		}
-		if (removed) {
+		String groupName = findGroupForMarker(markerToDelete);
+		List<ScreenMarkerOverlay> groupList = groupName != null ? markerGroups.get(groupName) : null;
+		if (groupList != null && groupList.remove(markerToDelete)) {
+			unindexMarker(markerToDelete);
 			overlayManager.remove(markerToDelete);
 			overlayManager.resetOverlay(markerToDelete);
-			updateGroupsConfig();
+			publishRenderSnapshot();
+			updateGroupConfig(groupName);
 			SwingUtilities.invokeLater(pluginPanel::rebuild);
 		}
 	}
@@ -422,223 +1247,827 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	}
 
 	/**
-	 * Saves the current state of all marker groups, their order, visibility,
-	 * and expansion states to the RuneLite configuration. Unsets configuration
-	 * keys if the corresponding data structures are empty.
+	 * Schedules saving every marker group and the group manifest to the RuneLite
+	 * configuration. Saves requested within the debounce window are coalesced
+	 * into a single write.
+	 */
+	public void updateGroupsConfig() {
+		markerGroups.keySet().forEach(this::updateGroupConfig);
+		updateManifestConfig();
+	}
+
+	/**
+	 * Schedules saving the group containing the given marker after the marker was
+	 * edited. Only that group's config key is rewritten.
+	 *
+	 * @param markerOverlay The overlay of the edited marker.
+	 */
+	public void updateMarkerConfig(ScreenMarkerOverlay markerOverlay) {
+		final String groupName = findGroupForMarker(markerOverlay);
+		if (groupName != null) {
+			updateGroupConfig(groupName);
+		}
+	}
+
+	/**
+	 * Schedules saving the markers of a single group. If the group no longer
+	 * exists or is empty, its config key is removed.
+	 *
+	 * @param groupName The name of the group.
+	 */
+	private void updateGroupConfig(String groupName) {
+		saveScheduler.request(groupConfigKey(groupName));
+	}
+
+	/**
+	 * Schedules saving the group manifest: the group order, visibility and
+	 * expansion states.
+	 */
+	private void updateManifestConfig() {
+		saveScheduler.request(CONFIG_KEY_MANIFEST);
+	}
+
+	/**
+	 * Writes all pending edits now instead of after the save delay, e.g. when the
+	 * panel is closed and a profile switch may follow.
+	 */
+	public void flushPendingSaves() {
+		if (saveScheduler != null) {
+			saveScheduler.flush();
+		}
+	}
+
+	/**
+	 * @param groupName The name of a group.
+	 * @return The config key the markers of the group are stored under.
+	 */
+	private static String groupConfigKey(String groupName) {
+		// Group names are free text, encode them so they form a valid config key
+		return CONFIG_KEY_GROUP_PREFIX + Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(groupName.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param key A config key created by {@link #groupConfigKey(String)}.
+	 * @return The name of the group stored under the key.
+	 */
+	private static String groupNameFromConfigKey(String key) {
+		return new String(Base64.getUrlDecoder().decode(key.substring(CONFIG_KEY_GROUP_PREFIX.length())),
+				StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Captures the value of a config key on the Swing thread and returns a task
+	 * serializing and writing it, which may run on any thread.
+	 *
+	 * @param key The config key to capture, either the manifest or a group key.
+	 * @return The task writing the captured value.
+	 */
+	private Runnable captureConfig(String key) {
+		if (key.equals(CONFIG_KEY_MANIFEST)) {
+			return captureManifest();
+		}
+
+		final Map<String, String> values = configValues;
+		final List<ScreenMarkerOverlay> overlayList = markerGroups.get(groupNameFromConfigKey(key));
+		if (overlayList == null || overlayList.isEmpty()) {
+			return () -> {
+				configManager.unsetConfiguration(CONFIG_GROUP, key);
+				values.put(key, null);
+			};
+		}
+		final List<ScreenMarker> markersToSave = overlayList.stream()
+				.map(overlay -> overlay.getMarker().copy())
+				.collect(Collectors.toList());
+		return () -> {
+			final String json = gson.toJson(markersToSave);
+			configManager.setConfiguration(CONFIG_GROUP, key, json);
+			values.put(key, json);
+		};
+	}
+
+	/**
+	 * Captures the group manifest on the Swing thread. Also removes the legacy
+	 * config keys once a migrated config has been written.
+	 *
+	 * @return The task writing the captured manifest.
+	 */
+	private Runnable captureManifest() {
+		// Clean up states of groups that no longer exist
+		groupVisibilityStates.keySet().retainAll(markerGroups.keySet());
+		groupExpansionStates.keySet().retainAll(markerGroups.keySet());
+		visibilityPresets.stream()
+				.filter(Objects::nonNull)
+				.forEach(preset -> preset.keySet().retainAll(markerGroups.keySet()));
+		if (groupRegions.keySet().retainAll(markerGroups.keySet())) {
+			rebuildRegionIndex();
+		}
+		if (groupConditions.keySet().retainAll(markerGroups.keySet())) {
+			rebuildConditions();
+		}
+
+		final ScreenMarkerGroupsManifest manifest = new ScreenMarkerGroupsManifest(
+				groupOrderList.stream()
+						.filter(markerGroups::containsKey)
+						.collect(Collectors.toList()),
+				new HashMap<>(groupVisibilityStates),
+				new HashMap<>(groupExpansionStates),
+				markerIds.getNextId(),
+				visibilityPresets.stream()
+						.map(preset -> preset != null ? new HashMap<>(preset) : null)
+						.collect(Collectors.toList()),
+				new HashMap<>(groupRegions),
+				new HashMap<>(groupConditions));
+		final boolean removeLegacyConfig = legacyConfigPending;
+		legacyConfigPending = false;
+		final Map<String, String> values = configValues;
+
+		return () -> {
+			final String json = gson.toJson(manifest);
+			configManager.setConfiguration(CONFIG_GROUP, CONFIG_KEY_MANIFEST, json);
+			values.put(CONFIG_KEY_MANIFEST, json);
+			if (removeLegacyConfig) {
+				for (String legacyKey : new String[] { LEGACY_CONFIG_KEY_MARKERS, LEGACY_CONFIG_KEY_ORDER,
+						LEGACY_CONFIG_KEY_VISIBILITY, LEGACY_CONFIG_KEY_EXPANSION }) {
+					configManager.unsetConfiguration(CONFIG_GROUP, legacyKey);
+					values.put(legacyKey, null);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Loads all marker groups and the group manifest from the configuration,
+	 * replacing the current state. Configs still using the legacy single-key
+	 * layout are migrated.
+	 */
+	void loadGroupsConfig() {
+		applyGroupsConfig(readGroupsConfig());
+	}
+
+	/**
+	 * Reads all marker groups and the group manifest from the configuration
+	 * without touching the current state, so it may run on any thread. Overlays
+	 * are created while the JSON is streamed, and markers that fail to parse are
+	 * skipped one at a time.
+	 *
+	 * @return The loaded groups, to be passed to {@link #applyGroupsConfig}.
+	 */
+	private LoadedGroups readGroupsConfig() {
+		final ScreenMarkerGroupsReader reader = new ScreenMarkerGroupsReader(gson);
+		final Map<String, List<ScreenMarkerOverlay>> groups = new LinkedHashMap<>();
+		final Map<String, String> configValues = Collections.synchronizedMap(new HashMap<>());
+		final ScreenMarkerGroupsManifest manifest = readManifest(configValues);
+		if (manifest == null) {
+			readLegacyGroups(reader, groups, configValues);
+			return new LoadedGroups(readLegacyManifest(configValues), groups, configValues,
+					hasLegacyConfig(configValues));
+		}
+		// A manifest that failed to parse lost the group order, without which no group is read
+		if (manifest.getOrder() == null) {
+			manifest.setOrder(readGroupShardNames());
+		}
+		readGroupShards(reader, manifest.getOrder(), groups, configValues);
+		return new LoadedGroups(manifest, groups, configValues, false);
+	}
+
+	/**
+	 * Replaces the current state with groups read by {@link #readGroupsConfig}.
+	 * Starts the migration of a legacy config.
+	 *
+	 * @param loaded The loaded groups.
+	 */
+	private void applyGroupsConfig(LoadedGroups loaded) {
+		markerGroups.clear();
+		markerIds.clear();
+		spatialIndex.clear();
+		groupOrderList.clear();
+		groupVisibilityStates.clear();
+		groupExpansionStates.clear();
+		clearVisibilityPresets();
+		clearGroupRegions();
+		clearGroupConditions();
+		legacyConfigPending = false;
+
+		final ScreenMarkerGroupsManifest manifest = loaded.getManifest();
+		configValues = loaded.getConfigValues();
+		loaded.getGroups().forEach((groupName, overlayList) -> {
+			markerGroups.put(groupName, overlayList);
+			overlayList.forEach(overlay -> indexMarker(overlay, groupName));
+		});
+		// Registering the loaded markers already moved the id counter past them, the
+		// persisted counter also keeps the ids of deleted markers from being reused
+		if (manifest.getNextMarkerId() != null) {
+			markerIds.restore(manifest.getNextMarkerId());
+		}
+		markerGroups.computeIfAbsent(UNASSIGNED_GROUP, k -> new ArrayList<>());
+
+		final List<String> loadedOrder = manifest.getOrder();
+
+		// Add loaded, valid groups to the order list
+		if (loadedOrder != null) {
+			groupOrderList.addAll(loadedOrder.stream()
+					.filter(markerGroups::containsKey) // Only add groups that actually exist
+					.collect(Collectors.toList()));
+		}
+
+		// Find groups present in data but missing from the loaded order
+		List<String> groupsToAdd = markerGroups.keySet().stream()
+				.filter(groupName -> !groupOrderList.contains(groupName))
+				.filter(groupName -> !groupName.equals(UNASSIGNED_GROUP) && !groupName.equals(IMPORTED_GROUP))
+				.sorted(String.CASE_INSENSITIVE_ORDER)
+				.collect(Collectors.toList());
+
+		// Add the missing normal groups at the calculated insertion point
+		if (!groupsToAdd.isEmpty()) {
+			int insertIndex = calculateGroupInsertIndex();
+			groupOrderList.addAll(insertIndex, groupsToAdd);
+		}
+
+		// Ensure Unassigned and Imported groups are present and at the end, in the
+		// correct order
+		ensureSpecialGroupsOrder();
+
+		// Clean up any potential stale entries in groupOrderList
+		groupOrderList.retainAll(markerGroups.keySet());
+
+		if (manifest.getVisibility() != null) {
+			// Only load states for groups that actually exist
+			manifest.getVisibility().forEach((groupName, isVisible) -> {
+				if (markerGroups.containsKey(groupName) && isVisible != null) {
+					groupVisibilityStates.put(groupName, isVisible);
+				}
+			});
+		}
+
+		if (manifest.getExpansion() != null) {
+			// Only load states for groups that actually exist
+			manifest.getExpansion().forEach((groupName, isExpanded) -> {
+				if (markerGroups.containsKey(groupName) && isExpanded != null) {
+					groupExpansionStates.put(groupName, isExpanded);
+				}
+			});
+		}
+
+		final List<Map<String, Boolean>> loadedPresets = manifest.getVisibilityPresets();
+		if (loadedPresets != null) {
+			for (int slot = 0; slot < Math.min(loadedPresets.size(), VISIBILITY_PRESET_COUNT); slot++) {
+				final Map<String, Boolean> preset = loadedPresets.get(slot);
+				if (preset != null) {
+					preset.values().removeIf(Objects::isNull);
+					visibilityPresets.set(slot, new HashMap<>(preset));
+				}
+			}
+		}
+
+		if (manifest.getRegions() != null) {
+			manifest.getRegions().forEach((groupName, regionIds) -> {
+				if (markerGroups.containsKey(groupName) && regionIds != null) {
+					regionIds.removeIf(Objects::isNull);
+					if (!regionIds.isEmpty()) {
+						groupRegions.put(groupName, new ArrayList<>(regionIds));
+					}
+				}
+			});
+		}
+		rebuildRegionIndex();
+
+		if (manifest.getConditions() != null) {
+			manifest.getConditions().forEach((groupName, condition) -> {
+				if (markerGroups.containsKey(groupName) && !Strings.isNullOrEmpty(condition)) {
+					groupConditions.put(groupName, condition);
+				}
+			});
+		}
+		rebuildConditions();
+
+		if (loaded.isLegacy()) {
+			// One-time migration to one config key per group. The groups are written
+			// before the manifest, which removes the legacy keys once written.
+			legacyConfigPending = true;
+			updateGroupsConfig();
+		}
+	}
+
+	/**
+	 * Reads the group manifest.
+	 *
+	 * @param configValues Records the config values read.
+	 * @return The manifest, an empty manifest without a group order if it could
+	 *         not be parsed, or null if the config still uses the legacy
+	 *         single-key layout.
+	 */
+	private ScreenMarkerGroupsManifest readManifest(Map<String, String> configValues) {
+		final String manifestJson = readConfig(configValues, CONFIG_KEY_MANIFEST);
+		if (Strings.isNullOrEmpty(manifestJson)) {
+			return null;
+		}
+		try {
+			final ScreenMarkerGroupsManifest manifest = gson.fromJson(manifestJson, ScreenMarkerGroupsManifest.class);
+			if (manifest != null) {
+				return manifest;
+			}
+		} catch (JsonParseException e) {
+			log.warn("Failed to parse the marker group manifest, recovering the groups from their config keys", e);
+		}
+		return new ScreenMarkerGroupsManifest();
+	}
+
+	/**
+	 * Lists the groups that have markers stored under their own config key, for
+	 * recovering the group order when the manifest is lost. Groups without
+	 * markers have no config key and cannot be recovered.
+	 *
+	 * @return The names of the stored groups, sorted by name.
+	 */
+	private List<String> readGroupShardNames() {
+		final String keyPrefix = CONFIG_GROUP + "." + CONFIG_KEY_GROUP_PREFIX;
+		final List<String> groupNames = new ArrayList<>();
+		for (String key : configManager.getConfigurationKeys(keyPrefix)) {
+			try {
+				groupNames.add(groupNameFromConfigKey(key.substring(CONFIG_GROUP.length() + 1)));
+			} catch (IllegalArgumentException e) {
+				log.warn("Skipping marker group config key {} with an invalid group name", key);
+			}
+		}
+		groupNames.sort(String.CASE_INSENSITIVE_ORDER);
+		return groupNames;
+	}
+
+	/**
+	 * Reads the markers of the given groups, each stored under its own config key.
+	 * Entries that fail to parse are skipped without affecting the others.
+	 *
+	 * @param reader       The reader to stream the markers with.
+	 * @param groupNames   The names of the groups listed in the manifest.
+	 * @param groups       The map to add the groups to.
+	 * @param configValues Records the config values read.
+	 */
+	private void readGroupShards(ScreenMarkerGroupsReader reader, List<String> groupNames,
+			Map<String, List<ScreenMarkerOverlay>> groups, Map<String, String> configValues) {
+		if (groupNames == null) {
+			return;
+		}
+		for (String groupName : groupNames) {
+			if (groupName == null) {
+				continue;
+			}
+			reader.readMarkers(readConfig(configValues, groupConfigKey(groupName)),
+					loadedGroup(groups, groupName));
+		}
+	}
+
+	/**
+	 * @param configValues Records the config values read.
+	 * @return True if any of the legacy single-key config values is present.
+	 */
+	private boolean hasLegacyConfig(Map<String, String> configValues) {
+		return readConfig(configValues, LEGACY_CONFIG_KEY_MARKERS) != null
+				|| readConfig(configValues, LEGACY_CONFIG_KEY_ORDER) != null
+				|| readConfig(configValues, LEGACY_CONFIG_KEY_VISIBILITY) != null
+				|| readConfig(configValues, LEGACY_CONFIG_KEY_EXPANSION) != null;
+	}
+
+	/**
+	 * Reads the markers of all groups from the legacy single config value.
+	 *
+	 * @param reader       The reader to stream the markers with.
+	 * @param groups       The map to add the groups to.
+	 * @param configValues Records the config values read.
+	 */
+	private void readLegacyGroups(ScreenMarkerGroupsReader reader, Map<String, List<ScreenMarkerOverlay>> groups,
+			Map<String, String> configValues) {
+		reader.readGroups(readConfig(configValues, LEGACY_CONFIG_KEY_MARKERS),
+				groupName -> loadedGroup(groups, groupName));
+	}
+
+	/**
+	 * Creates a group being loaded from the config and returns a consumer adding
+	 * each marker read for it as an overlay.
+	 *
+	 * @param groups    The map to add the group to.
+	 * @param groupName The name of the group being loaded.
+	 * @return The consumer receiving the group's markers.
+	 */
+	private Consumer<ScreenMarker> loadedGroup(Map<String, List<ScreenMarkerOverlay>> groups, String groupName) {
+		final List<ScreenMarkerOverlay> overlayList = groups.computeIfAbsent(groupName, k -> new ArrayList<>());
+		return marker -> {
+			final ScreenMarkerOverlay markerOverlay = new ScreenMarkerOverlay(marker, this);
+			overlayList.add(markerOverlay);
+			loadOverlayBounds(markerOverlay);
+		};
+	}
+
+	/**
+	 * Reads a value of the plugin's config group and records it, so that a cached
+	 * model can later be checked against the config it was read from.
+	 *
+	 * @param configValues The map to record the value in.
+	 * @param key          The config key to read.
+	 * @return The config value, or null if it is not set.
+	 */
+	private String readConfig(Map<String, String> configValues, String key) {
+		final String value = configManager.getConfiguration(CONFIG_GROUP, key);
+		configValues.put(key, value);
+		return value;
+	}
+
+	/**
+	 * Reads the group order, visibility and expansion states from the legacy
+	 * config keys. Values that fail to parse are left null.
+	 *
+	 * @param configValues Records the config values read.
+	 * @return The manifest assembled from the legacy keys.
+	 */
+	private ScreenMarkerGroupsManifest readLegacyManifest(Map<String, String> configValues) {
+		final ScreenMarkerGroupsManifest manifest = new ScreenMarkerGroupsManifest();
+
+		final String orderJson = readConfig(configValues, LEGACY_CONFIG_KEY_ORDER);
+		if (!Strings.isNullOrEmpty(orderJson)) {
+			try {
+				manifest.setOrder(gson.fromJson(orderJson, new TypeToken<ArrayList<String>>() {
+				}.getType()));
+			} catch (Exception e) {
+				manifest.setOrder(null);
+			}
+		}
+
+		final String visibilityJson = readConfig(configValues, LEGACY_CONFIG_KEY_VISIBILITY);
+		if (!Strings.isNullOrEmpty(visibilityJson)) {
+			try {
+				manifest.setVisibility(gson.fromJson(visibilityJson, new TypeToken<HashMap<String, Boolean>>() {
+				}.getType()));
+			} catch (Exception e) {
+				manifest.setVisibility(null);
+			}
+		}
+
+		final String expansionJson = readConfig(configValues, LEGACY_CONFIG_KEY_EXPANSION);
+		if (!Strings.isNullOrEmpty(expansionJson)) {
+			try {
+				manifest.setExpansion(gson.fromJson(expansionJson, new TypeToken<HashMap<String, Boolean>>() {
+				}.getType()));
+			} catch (Exception e) {
+				manifest.setExpansion(null);
+			}
+		}
+		return manifest;
+	}
+
+	/**
+	 * Checks if a group is currently set to be visible.
+	 * Defaults to true if the group has no specific state saved.
+	 *
+	 * @param groupName The name of the group.
+	 * @return True if the group is visible, false otherwise.
+	 */
+	public boolean isGroupVisible(String groupName) {
+		return groupVisibilityStates.getOrDefault(groupName, true);
+	}
+
+	/**
+	 * Sets the visibility state for a specific group and saves the configuration.
+	 * Only the render snapshot changes; the group's overlays stay registered.
+	 *
+	 * @param groupName The name of the group.
+	 * @param isVisible The desired visibility state.
+	 */
+	public void setGroupVisibility(String groupName, boolean isVisible) {
+		if (!markerGroups.containsKey(groupName)) {
+			return;
+		}
+
+		if (isGroupVisible(groupName) == isVisible) {
+			return;
+		}
+		groupVisibilityStates.put(groupName, isVisible);
+		publishRenderSnapshot();
+		updateManifestConfig();
+	}
+
+	/**
+	 * @param slot The preset slot.
+	 * @return The name of the visibility preset, as set in the config.
+	 */
+	public String getVisibilityPresetName(int slot) {
+		switch (slot) {
+			case 0:
+				return config.preset1Name();
+			case 1:
+				return config.preset2Name();
+			case 2:
+				return config.preset3Name();
+			default:
+				return config.preset4Name();
+		}
+	}
+
+	/**
+	 * @param slot The preset slot.
+	 * @return The hotkey applying the visibility preset.
+	 */
+	private Keybind getVisibilityPresetHotkey(int slot) {
+		switch (slot) {
+			case 0:
+				return config.preset1Hotkey();
+			case 1:
+				return config.preset2Hotkey();
+			case 2:
+				return config.preset3Hotkey();
+			default:
+				return config.preset4Hotkey();
+		}
+	}
+
+	/**
+	 * @param slot The preset slot.
+	 * @return True if a visibility preset was saved in the slot.
+	 */
+	public boolean hasVisibilityPreset(int slot) {
+		return visibilityPresets.get(slot) != null;
+	}
+
+	/**
+	 * Saves the current visibility of every group as a visibility preset,
+	 * replacing the preset previously saved in the slot.
+	 *
+	 * @param slot The preset slot.
+	 */
+	public void saveVisibilityPreset(int slot) {
+		final Map<String, Boolean> preset = new HashMap<>();
+		groupOrderList.forEach(groupName -> preset.put(groupName, isGroupVisible(groupName)));
+		visibilityPresets.set(slot, preset);
+		compiledPresets[slot] = null;
+		updateManifestConfig();
+	}
+
+	/**
+	 * Shows and hides groups as saved in a visibility preset. All groups are
+	 * changed in one pass, followed by a single render snapshot and a single
+	 * manifest save. The panel only refreshes its group headers.
+	 *
+	 * @param slot The preset slot.
+	 */
+	public void applyVisibilityPreset(int slot) {
+		final ScreenMarkerVisibilityPreset preset = compiledVisibilityPreset(slot);
+		if (preset == null || loading) {
+			return;
+		}
+
+		boolean changed = false;
+		for (int i = preset.nextCovered(0); i >= 0; i = preset.nextCovered(i + 1)) {
+			final String groupName = groupOrderList.get(i);
+			final boolean visible = preset.isVisible(i);
+			if (isGroupVisible(groupName) != visible) {
+				groupVisibilityStates.put(groupName, visible);
+				changed = true;
+			}
+		}
+		if (!changed) {
+			return;
+		}
+
+		publishRenderSnapshot();
+		updateManifestConfig();
+		if (pluginPanel != null) {
+			pluginPanel.updateGroupStates();
+		}
+	}
+
+	/**
+	 * Returns a visibility preset compiled against the current group order,
+	 * compiling it again only if the order changed since.
+	 *
+	 * @param slot The preset slot.
+	 * @return The compiled preset, or null if no preset was saved in the slot.
 	 */
-	public void updateGroupsConfig() {
-		boolean shouldSaveMarkers = !markerGroups.isEmpty();
-		boolean shouldSaveOrder = !groupOrderList.isEmpty();
-
-		if (!shouldSaveMarkers) {
-			configManager.unsetConfiguration(CONFIG_GROUP, CONFIG_KEY_MARKERS);
-		} else {
-			Map<String, List<ScreenMarker>> groupsToSave = new HashMap<>();
-			markerGroups.forEach((groupName, overlayList) -> {
-				List<ScreenMarker> markerList = overlayList.stream()
-						.map(ScreenMarkerOverlay::getMarker)
-						.collect(Collectors.toList());
-				groupsToSave.put(groupName, markerList);
-			});
-			final String markersJson = gson.toJson(groupsToSave);
-			configManager.setConfiguration(CONFIG_GROUP, CONFIG_KEY_MARKERS, markersJson);
+	private ScreenMarkerVisibilityPreset compiledVisibilityPreset(int slot) {
+		if (!groupOrderList.equals(compiledPresetOrder)) {
+			Arrays.fill(compiledPresets, null);
+			compiledPresetOrder = new ArrayList<>(groupOrderList);
 		}
-
-		if (!shouldSaveOrder) {
-			configManager.unsetConfiguration(CONFIG_GROUP, CONFIG_KEY_ORDER);
-		} else {
-			// Filter order list to only contain existing groups before saving
-			List<String> orderToSave = groupOrderList.stream()
-					.filter(markerGroups::containsKey)
-					.collect(Collectors.toList());
-			if (orderToSave.isEmpty()) {
-				configManager.unsetConfiguration(CONFIG_GROUP, CONFIG_KEY_ORDER);
-			} else {
-				final String orderJson = gson.toJson(orderToSave);
-				configManager.setConfiguration(CONFIG_GROUP, CONFIG_KEY_ORDER, orderJson);
-			}
+		final Map<String, Boolean> states = visibilityPresets.get(slot);
+		if (states == null) {
+			return null;
 		}
-
-		updateVisibilityConfig();
-		updateExpansionConfig();
+		if (compiledPresets[slot] == null) {
+			compiledPresets[slot] = ScreenMarkerVisibilityPreset.compile(states, groupOrderList);
+		}
+		return compiledPresets[slot];
 	}
 
 	/**
-	 * Saves the current group visibility states to the config manager.
+	 * Forgets all visibility presets, before loading another config.
 	 */
-	private void updateVisibilityConfig() {
-		// Clean up visibility states for groups that no longer exist
-		groupVisibilityStates.keySet().retainAll(markerGroups.keySet());
+	private void clearVisibilityPresets() {
+		Collections.fill(visibilityPresets, null);
+		Arrays.fill(compiledPresets, null);
+	}
 
-		if (groupVisibilityStates.isEmpty()) {
-			configManager.unsetConfiguration(CONFIG_GROUP, CONFIG_KEY_VISIBILITY);
-		} else {
-			final String visibilityJson = gson.toJson(groupVisibilityStates);
-			configManager.setConfiguration(CONFIG_GROUP, CONFIG_KEY_VISIBILITY, visibilityJson);
-		}
+	/**
+	 * @param groupName The name of the group.
+	 * @return The regions the group is shown in; empty if it is shown everywhere.
+	 */
+	public List<Integer> getGroupRegions(String groupName) {
+		return groupRegions.getOrDefault(groupName, Collections.emptyList());
 	}
 
 	/**
-	 * Saves the current group expansion states to the config manager.
+	 * Sets the map regions a group is shown in and saves the configuration. The
+	 * group is hidden while the player is outside all of them, on top of its own
+	 * visibility toggle.
+	 *
+	 * @param groupName The name of the group.
+	 * @param regionIds The region ids, or an empty list to show the group
+	 *                  everywhere.
+	 * @return True if the group exists.
 	 */
-	private void updateExpansionConfig() {
-		// Clean up expansion states for groups that no longer exist
-		groupExpansionStates.keySet().retainAll(markerGroups.keySet());
+	public boolean setGroupRegions(String groupName, List<Integer> regionIds) {
+		if (!markerGroups.containsKey(groupName)) {
+			return false;
+		}
 
-		if (groupExpansionStates.isEmpty()) {
-			configManager.unsetConfiguration(CONFIG_GROUP, CONFIG_KEY_EXPANSION);
+		if (regionIds.isEmpty()) {
+			groupRegions.remove(groupName);
 		} else {
-			final String expansionJson = gson.toJson(groupExpansionStates);
-			configManager.setConfiguration(CONFIG_GROUP, CONFIG_KEY_EXPANSION, expansionJson);
+			groupRegions.put(groupName, new ArrayList<>(new LinkedHashSet<>(regionIds)));
 		}
+		rebuildRegionIndex();
+		publishRenderSnapshot();
+		updateManifestConfig();
+		return true;
 	}
 
-	private void loadGroupsConfig() {
-		markerGroups.clear();
-		groupOrderList.clear();
-		groupVisibilityStates.clear();
-		groupExpansionStates.clear();
-
-		final String markersJson = configManager.getConfiguration(CONFIG_GROUP, CONFIG_KEY_MARKERS);
-		if (!Strings.isNullOrEmpty(markersJson)) {
-			try {
-				final Map<String, List<ScreenMarker>> loadedGroups = gson.fromJson(markersJson,
-						new TypeToken<HashMap<String, List<ScreenMarker>>>() {
-						}.getType());
-
-				if (loadedGroups != null) {
-					loadedGroups.forEach((groupName, markerList) -> {
-						List<ScreenMarkerOverlay> overlayList = markerList.stream()
-								.filter(Objects::nonNull)
-								.map(marker -> new ScreenMarkerOverlay(marker, this))
-								.collect(Collectors.toList());
-						markerGroups.put(groupName, new ArrayList<>(overlayList));
-					});
-				}
-			} catch (Exception e) {
-				markerGroups.clear();
+	/**
+	 * Rebuilds the region to group index from the group regions, and works out
+	 * again which region-bound groups are outside the player's region. Only
+	 * needed when the regions of a group change, not when the player moves.
+	 */
+	private void rebuildRegionIndex() {
+		final int regionId = playerRegionId;
+		final Map<Integer, List<String>> index = new HashMap<>();
+		final Set<String> outOfRegion = new HashSet<>();
+		groupRegions.forEach((groupName, regionIds) -> {
+			regionIds.forEach(id -> index.computeIfAbsent(id, k -> new ArrayList<>()).add(groupName));
+			if (!regionIds.contains(regionId)) {
+				outOfRegion.add(groupName);
 			}
-		}
-		markerGroups.computeIfAbsent(UNASSIGNED_GROUP, k -> new ArrayList<>());
+		});
+		regionGroupIndex = index;
+		outOfRegionGroups.retainAll(outOfRegion);
+		outOfRegionGroups.addAll(outOfRegion);
+	}
 
-		final String orderJson = configManager.getConfiguration(CONFIG_GROUP, CONFIG_KEY_ORDER);
-		List<String> loadedOrder = null;
-		if (!Strings.isNullOrEmpty(orderJson)) {
-			try {
-				loadedOrder = gson.fromJson(orderJson, new TypeToken<ArrayList<String>>() {
-				}.getType());
-			} catch (Exception e) {
-				loadedOrder = null;
-			}
-		}
+	/**
+	 * Forgets all group regions, before loading another config.
+	 */
+	private void clearGroupRegions() {
+		groupRegions.clear();
+		regionGroupIndex = Collections.emptyMap();
+		outOfRegionGroups.clear();
+	}
 
-		// Add loaded, valid groups to the order list
-		if (loadedOrder != null) {
-			groupOrderList.addAll(loadedOrder.stream()
-					.filter(markerGroups::containsKey) // Only add groups that actually exist
-					.collect(Collectors.toList()));
-		}
+	/**
+	 * @param groupName The name of the group.
+	 * @return The visibility condition of the group, or null if it has none.
+	 */
+	public String getGroupCondition(String groupName) {
+		return groupConditions.get(groupName);
+	}
 
-		// Find groups present in data but missing from the loaded order
-		List<String> groupsToAdd = markerGroups.keySet().stream()
-				.filter(groupName -> !groupOrderList.contains(groupName))
-				.filter(groupName -> !groupName.equals(UNASSIGNED_GROUP) && !groupName.equals(IMPORTED_GROUP))
-				.sorted(String.CASE_INSENSITIVE_ORDER)
-				.collect(Collectors.toList());
+	/**
+	 * Sets the condition a group is shown under and saves the configuration. The
+	 * group is hidden while the condition does not hold, on top of its own
+	 * visibility toggle.
+	 *
+	 * @param groupName The name of the group.
+	 * @param condition The condition, or an empty string to show the group
+	 *                  unconditionally.
+	 * @return True if the group exists.
+	 * @throws IllegalArgumentException If the condition is not valid.
+	 */
+	public boolean setGroupCondition(String groupName, String condition) {
+		if (!markerGroups.containsKey(groupName)) {
+			return false;
+		}
 
-		// Add the missing normal groups at the calculated insertion point
-		if (!groupsToAdd.isEmpty()) {
-			int insertIndex = calculateGroupInsertIndex();
-			groupOrderList.addAll(insertIndex, groupsToAdd);
+		if (Strings.isNullOrEmpty(condition) || condition.trim().isEmpty()) {
+			groupConditions.remove(groupName);
+		} else {
+			ScreenMarkerCondition.compile(condition);
+			groupConditions.put(groupName, condition.trim());
 		}
+		rebuildConditions();
+		updateManifestConfig();
+		return true;
+	}
 
-		// Ensure Unassigned and Imported groups are present and at the end, in the
-		// correct order
-		ensureSpecialGroupsOrder();
+	/**
+	 * Compiles the group conditions again and has the client thread test all of
+	 * them. Only needed when a condition changes, not when the game state does.
+	 */
+	private void rebuildConditions() {
+		conditions = ScreenMarkerConditions.compile(new HashMap<>(groupConditions));
+		clientThread.invokeLater(this::evaluateAllConditions);
+	}
 
-		// Clean up any potential stale entries in groupOrderList
-		groupOrderList.retainAll(markerGroups.keySet());
+	/**
+	 * Forgets all group conditions, before loading another config. The hidden
+	 * groups are only written by the client thread, so it drops the groups whose
+	 * condition is gone, and publishes a snapshot if any of them was hidden.
+	 */
+	private void clearGroupConditions() {
+		groupConditions.clear();
+		conditions = ScreenMarkerConditions.EMPTY;
+		clientThread.invokeLater(this::evaluateAllConditions);
+	}
 
-		final String visibilityJson = configManager.getConfiguration(CONFIG_GROUP, CONFIG_KEY_VISIBILITY);
-		if (!Strings.isNullOrEmpty(visibilityJson)) {
-			try {
-				final Map<String, Boolean> loadedVisibility = gson.fromJson(visibilityJson,
-						new TypeToken<HashMap<String, Boolean>>() {
-						}.getType());
-
-				if (loadedVisibility != null) {
-					// Only load states for groups that actually exist
-					loadedVisibility.forEach((groupName, isVisible) -> {
-						if (markerGroups.containsKey(groupName)) {
-							groupVisibilityStates.put(groupName, isVisible);
-						}
-					});
-				}
-			} catch (Exception e) {
-				groupVisibilityStates.clear();
-			}
-		}
+	/**
+	 * Tests the condition of every conditional group. Called on the client thread.
+	 */
+	private void evaluateAllConditions() {
+		final ScreenMarkerConditions current = conditions;
+		final boolean removed = conditionHiddenGroups.retainAll(current.getGroupNames());
+		evaluateConditions(current, current.getGroupNames(), removed);
+	}
 
-		final String expansionJson = configManager.getConfiguration(CONFIG_GROUP, CONFIG_KEY_EXPANSION);
-		if (!Strings.isNullOrEmpty(expansionJson)) {
-			try {
-				final Map<String, Boolean> loadedExpansion = gson.fromJson(expansionJson,
-						new TypeToken<HashMap<String, Boolean>>() {
-						}.getType());
-
-				if (loadedExpansion != null) {
-					// Only load states for groups that actually exist
-					loadedExpansion.forEach((groupName, isExpanded) -> {
-						if (markerGroups.containsKey(groupName)) {
-							groupExpansionStates.put(groupName, isExpanded);
-						}
-					});
-				}
-			} catch (Exception e) {
-				groupExpansionStates.clear();
-			}
+	/**
+	 * Tests the conditions depending on an input that changed. Called on the
+	 * client thread from the event changing the input.
+	 *
+	 * @param input The kind of input that changed.
+	 * @param id    The id of the changed varbit or skill; 0 for other inputs.
+	 */
+	private void conditionInputChanged(ScreenMarkerCondition.Input input, int id) {
+		final ScreenMarkerConditions current = conditions;
+		final List<String> dependents = current.getDependents(input, id);
+		if (!dependents.isEmpty()) {
+			evaluateConditions(current, dependents, false);
 		}
 	}
 
 	/**
-	 * Checks if a group is currently set to be visible.
-	 * Defaults to true if the group has no specific state saved.
+	 * Tests the conditions of the given groups, and publishes a single render
+	 * snapshot on the Swing thread if any group was shown or hidden.
 	 *
-	 * @param groupName The name of the group.
-	 * @return True if the group is visible, false otherwise.
+	 * @param current    The compiled conditions.
+	 * @param groupNames The groups to test.
+	 * @param changed    Whether a group was already shown or hidden.
 	 */
-	public boolean isGroupVisible(String groupName) {
-		return groupVisibilityStates.getOrDefault(groupName, true);
+	private void evaluateConditions(ScreenMarkerConditions current, Collection<String> groupNames,
+			boolean changed) {
+		for (String groupName : groupNames) {
+			final ScreenMarkerCondition condition = current.get(groupName);
+			if (condition == null) {
+				continue;
+			}
+			if (condition.test(client)) {
+				changed |= conditionHiddenGroups.remove(groupName);
+			} else {
+				changed |= conditionHiddenGroups.add(groupName);
+			}
+		}
+
+		if (changed) {
+			SwingUtilities.invokeLater(() -> {
+				// A load in progress publishes the snapshot once applied
+				if (!loading) {
+					publishRenderSnapshot();
+				}
+			});
+		}
 	}
 
 	/**
-	 * Sets the visibility state for a specific group and saves the configuration.
-	 * Also updates the OverlayManager to add/remove overlays accordingly.
+	 * Applies a change of the player's region. Only the groups bound to the
+	 * region left or the region entered are looked at, and all of them are
+	 * shown or hidden with a single render snapshot.
 	 *
-	 * @param groupName The name of the group.
-	 * @param isVisible The desired visibility state.
+	 * @param regionId The region the player is now in.
 	 */
-	public void setGroupVisibility(String groupName, boolean isVisible) {
-		if (!markerGroups.containsKey(groupName)) {
+	private void setPlayerRegion(int regionId) {
+		final int previousRegionId = playerRegionId;
+		if (regionId == previousRegionId) {
 			return;
 		}
-
-		boolean previousState = isGroupVisible(groupName);
-		groupVisibilityStates.put(groupName, isVisible);
-		updateVisibilityConfig();
-
-		if (previousState != isVisible) {
-			List<ScreenMarkerOverlay> groupOverlays = markerGroups.get(groupName);
-			if (groupOverlays != null) {
-				if (isVisible) {
-					groupOverlays.stream()
-							.filter(overlay -> overlay.getMarker().isVisible())
-							.forEach(overlayManager::add);
-				} else {
-					groupOverlays.forEach(overlayManager::remove);
-				}
+		playerRegionId = regionId;
+
+		final Map<Integer, List<String>> index = regionGroupIndex;
+		final List<String> entered = index.getOrDefault(regionId, Collections.emptyList());
+		boolean changed = false;
+		for (String groupName : index.getOrDefault(previousRegionId, Collections.emptyList())) {
+			if (!entered.contains(groupName)) {
+				changed |= outOfRegionGroups.add(groupName);
 			}
 		}
+		for (String groupName : entered) {
+			changed |= outOfRegionGroups.remove(groupName);
+		}
+
+		// A load in progress works out the groups from the new region once applied
+		if (changed && !loading) {
+			publishRenderSnapshot();
+		}
 	}
 
 	/**
@@ -663,7 +2092,7 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 			return;
 		}
 		groupExpansionStates.put(groupName, isExpanded);
-		updateExpansionConfig();
+		updateManifestConfig();
 	}
 
 	/**
@@ -686,7 +2115,7 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 		int insertIndex = calculateGroupInsertIndex();
 		groupOrderList.add(insertIndex, name);
 
-		updateGroupsConfig();
+		updateManifestConfig();
 		SwingUtilities.invokeLater(pluginPanel::rebuild);
 		return true;
 	}
@@ -723,23 +2152,36 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 			return;
 
 		if (choice == 0) { // Delete Markers
-			markersInGroup.forEach(overlayManager::remove);
+			// Remove all overlays in one pass, so the OverlayManager re-sorts only once
+			final Set<ScreenMarkerOverlay> deletedOverlays = new HashSet<>(markersInGroup);
+			overlayManager.removeIf(deletedOverlays::contains);
 			markersInGroup.forEach(overlayManager::resetOverlay);
+			markersInGroup.forEach(this::unindexMarker);
 		} else if (choice == 1) { // Move to Unassigned
 			List<ScreenMarkerOverlay> unassignedList = markerGroups.computeIfAbsent(UNASSIGNED_GROUP,
 					k -> new ArrayList<>());
 			unassignedList.addAll(markersInGroup);
+			markersInGroup.forEach(overlay -> indexMarker(overlay, UNASSIGNED_GROUP));
 			if (!groupOrderList.contains(UNASSIGNED_GROUP)) {
 				groupOrderList.add(UNASSIGNED_GROUP); // Add if not present
 				ensureSpecialGroupsOrder(); // Ensure it's placed correctly
 			}
+			updateGroupConfig(UNASSIGNED_GROUP);
 		}
 
 		markerGroups.remove(groupName);
 		groupOrderList.remove(groupName);
 		groupVisibilityStates.remove(groupName);
 		groupExpansionStates.remove(groupName);
-		updateGroupsConfig();
+		if (groupRegions.remove(groupName) != null) {
+			rebuildRegionIndex();
+		}
+		if (groupConditions.remove(groupName) != null) {
+			rebuildConditions();
+		}
+		publishRenderSnapshot();
+		updateGroupConfig(groupName);
+		updateManifestConfig();
 		SwingUtilities.invokeLater(pluginPanel::rebuild);
 	}
 
@@ -768,8 +2210,24 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 
 		if (markers != null) {
 			markerGroups.put(newName, markers);
+			markers.forEach(overlay -> indexMarker(overlay, newName));
 			groupVisibilityStates.put(newName, visibility != null ? visibility : true);
 			groupExpansionStates.put(newName, expansion != null ? expansion : true);
+			for (Map<String, Boolean> preset : visibilityPresets) {
+				if (preset != null && preset.containsKey(oldName)) {
+					preset.put(newName, preset.remove(oldName));
+				}
+			}
+			final List<Integer> regions = groupRegions.remove(oldName);
+			if (regions != null) {
+				groupRegions.put(newName, regions);
+				rebuildRegionIndex();
+			}
+			final String condition = groupConditions.remove(oldName);
+			if (condition != null) {
+				groupConditions.put(newName, condition);
+				rebuildConditions();
+			}
 
 			int index = groupOrderList.indexOf(oldName);
 			if (index != -1) {
@@ -779,7 +2237,9 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 				int insertIndex = calculateGroupInsertIndex();
 				groupOrderList.add(insertIndex, newName);
 			}
-			updateGroupsConfig();
+			updateGroupConfig(oldName);
+			updateGroupConfig(newName);
+			updateManifestConfig();
 			SwingUtilities.invokeLater(pluginPanel::rebuild);
 			return true;
 		}
@@ -800,7 +2260,8 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 			return;
 		}
 		Collections.swap(groupOrderList, currentIndex, currentIndex - 1);
-		updateGroupsConfig();
+		publishRenderSnapshot();
+		updateManifestConfig();
 		SwingUtilities.invokeLater(pluginPanel::rebuild);
 	}
 
@@ -825,23 +2286,62 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 		}
 
 		Collections.swap(groupOrderList, currentIndex, currentIndex + 1);
-		updateGroupsConfig();
+		publishRenderSnapshot();
+		updateManifestConfig();
 		SwingUtilities.invokeLater(pluginPanel::rebuild);
 	}
 
 	/**
 	 * Finds the name of the group that contains the given screen marker overlay.
+	 * Resolved through the marker id index, so this is safe to call per frame.
 	 *
 	 * @param markerOverlay The overlay to find the group for.
 	 * @return The name of the group containing the overlay, or null if not found.
 	 */
 	public String findGroupForMarker(ScreenMarkerOverlay markerOverlay) {
-		for (Map.Entry<String, List<ScreenMarkerOverlay>> entry : markerGroups.entrySet()) {
-			if (entry.getValue().contains(markerOverlay)) {
-				return entry.getKey();
-			}
+		return markerIds.get(markerOverlay.getMarker().getId());
+	}
+
+	/**
+	 * Records the group a marker belongs to in the marker id index.
+	 *
+	 * @param markerOverlay The overlay of the marker.
+	 * @param groupName     The name of the group now containing the marker.
+	 */
+	private void indexMarker(ScreenMarkerOverlay markerOverlay, String groupName) {
+		markerIds.put(markerOverlay.getMarker().getId(), groupName);
+		spatialIndex.add(markerOverlay);
+	}
+
+	/**
+	 * Removes a marker from the marker id index.
+	 *
+	 * @param markerOverlay The overlay of the marker being removed.
+	 */
+	private void unindexMarker(ScreenMarkerOverlay markerOverlay) {
+		markerIds.remove(markerOverlay.getMarker().getId());
+		spatialIndex.remove(markerOverlay);
+	}
+
+	/**
+	 * Opens the panel and scrolls to the marker under the mouse, if any.
+	 */
+	private void selectMarkerUnderCursor() {
+		final net.runelite.api.Point mouse = client.getMouseCanvasPosition();
+		final ScreenMarkerOverlay markerOverlay = spatialIndex.markerAt(mouse.getX(), mouse.getY());
+		final String groupName = markerOverlay != null ? findGroupForMarker(markerOverlay) : null;
+		if (groupName == null || pluginPanel == null || loading) {
+			return;
 		}
-		return null;
+
+		SwingUtilities.invokeLater(() -> {
+			clientToolbar.openPanel(navigationButton);
+			if (!isGroupExpanded(groupName)) {
+				setGroupExpansion(groupName, true);
+				pluginPanel.rebuild();
+			}
+			pluginPanel.scrollToMarker(markerOverlay);
+		});
 	}
 
 	/**
@@ -858,7 +2358,8 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 		int currentIndex = groupList.indexOf(markerOverlay);
 		if (currentIndex > 0) {
 			Collections.swap(groupList, currentIndex, currentIndex - 1);
-			updateGroupsConfig();
+			publishRenderSnapshot();
+			updateGroupConfig(groupName);
 			SwingUtilities.invokeLater(pluginPanel::rebuild);
 		}
 	}
@@ -877,7 +2378,8 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 		int currentIndex = groupList.indexOf(markerOverlay);
 		if (currentIndex >= 0 && currentIndex < groupList.size() - 1) {
 			Collections.swap(groupList, currentIndex, currentIndex + 1);
-			updateGroupsConfig();
+			publishRenderSnapshot();
+			updateGroupConfig(groupName);
 			SwingUtilities.invokeLater(pluginPanel::rebuild);
 		}
 	}
@@ -900,13 +2402,11 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 		List<ScreenMarkerOverlay> targetList = markerGroups.computeIfAbsent(targetGroupName, k -> new ArrayList<>());
 		if (sourceList.remove(markerOverlay)) {
 			targetList.add(markerOverlay);
-			// Update overlay manager based on target group visibility
-			if (!isGroupVisible(targetGroupName)) {
-				overlayManager.remove(markerOverlay);
-			} else if (markerOverlay.getMarker().isVisible()) { // OverlayManager.add is idempotent
-				overlayManager.add(markerOverlay);
-			}
-			updateGroupsConfig();
+			indexMarker(markerOverlay, targetGroupName);
+			// The target group's visibility only changes the render state
+			publishRenderSnapshot();
+			updateGroupConfig(sourceGroupName);
+			updateGroupConfig(targetGroupName);
 			SwingUtilities.invokeLater(pluginPanel::rebuild);
 		}
 	}
@@ -930,6 +2430,29 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 					importScreenMarkers();
 				});
 			}
+		} else if (event.getKey().equals("batchedRendering")) {
+			batchedRendering = config.batchedRendering();
+			registerMarkerOverlays();
+		} else if (event.getKey().equals("staticMarkerLayer")) {
+			staticLayerEnabled = config.staticMarkerLayer();
+			if (!staticLayerEnabled) {
+				batchOverlay.clearStaticLayer();
+			}
+			publishRenderSnapshot();
+		} else if (event.getKey().equals("cacheMarkerSprites") || event.getKey().equals("spriteCacheSize")) {
+			updateSpriteCacheConfig();
+			publishRenderSnapshot();
+		} else if (event.getKey().equals("saveDebounceMillis")) {
+			saveScheduler.setDebounceMillis(config.saveDebounceMillis());
+		} else if (event.getKey().equals("profileCacheSize")) {
+			profileCache.setMaxSize(config.profileCacheSize());
+		} else if (event.getKey().equals("markerTooltips")) {
+			markerTooltips = config.markerTooltips();
+		} else if (event.getKey().equals("virtualizedMarkerList")) {
+			virtualizedMarkerList = config.virtualizedMarkerList();
+			if (pluginPanel != null) {
+				SwingUtilities.invokeLater(pluginPanel::rebuild);
+			}
 		}
 	}
 
@@ -938,11 +2461,51 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 	 * Reads the configuration from the "screenmarkers" group and adds them
 	 * to the "Imported" group in this plugin. Shows dialogs for success,
 	 * failure, or if no markers were found/imported.
+	 * The markers are read and converted on the background executor while the
+	 * panel shows the progress; the plugin state is only updated once all of
+	 * them have been converted.
 	 */
 	public void importScreenMarkers() {
+		if (importInProgress || loading) {
+			return;
+		}
+
+		// Original ids of markers imported before, to skip them in constant time
+		final Set<Long> importedIds = new HashSet<>();
+		for (ScreenMarkerOverlay importedOverlay : markerGroups.getOrDefault(IMPORTED_GROUP,
+				Collections.emptyList())) {
+			final Long importedId = importedOverlay.getMarker().getImportedId();
+			if (importedId != null) {
+				importedIds.add(importedId);
+			}
+		}
+
+		importInProgress = true;
+		pluginPanel.setImportProgress(0, 0);
+		final int generation = stateGeneration;
+		executor.execute(() -> {
+			try {
+				readScreenMarkerImport(importedIds, generation);
+			} catch (Exception e) {
+				showImportMessage(generation, "Failed to import markers from the original plugin.",
+						"Import Error", JOptionPane.ERROR_MESSAGE);
+			}
+		});
+	}
+
+	/**
+	 * Reads and converts the markers of the original plugin. Runs on the
+	 * background executor and hands the converted markers to
+	 * {@link #finishImport} on the Swing thread.
+	 *
+	 * @param importedIds The original ids of markers that were already imported.
+	 *                    Ids of converted markers are added to it.
+	 * @param generation  The import generation the import was started in.
+	 */
+	private void readScreenMarkerImport(Set<Long> importedIds, int generation) {
 		String originalMarkersJson = configManager.getConfiguration("screenmarkers", "markers");
 		if (Strings.isNullOrEmpty(originalMarkersJson)) {
-			JOptionPane.showMessageDialog(pluginPanel,
+			showImportMessage(generation,
 					"No markers found in the original Screen Markers plugin configuration.",
 					"Import Failed", JOptionPane.INFORMATION_MESSAGE);
 			return;
@@ -952,42 +2515,34 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 			loadedMarkers = gson.fromJson(originalMarkersJson, new TypeToken<ArrayList<ScreenMarker>>() {
 			}.getType());
 		} catch (Exception e) {
-			// Error logged during development, removed for production cleanup
-			JOptionPane.showMessageDialog(pluginPanel,
+			showImportMessage(generation,
 					"Failed to parse markers from the original plugin.",
 					"Import Error", JOptionPane.ERROR_MESSAGE);
 			return;
 		}
 		if (loadedMarkers == null || loadedMarkers.isEmpty()) {
-			JOptionPane.showMessageDialog(pluginPanel,
+			showImportMessage(generation,
 					"No valid markers found to import.",
 					"Import Failed", JOptionPane.INFORMATION_MESSAGE);
 			return;
 		}
-		List<ScreenMarkerOverlay> importedGroupList = markerGroups.computeIfAbsent(IMPORTED_GROUP,
-				k -> new ArrayList<>());
-		if (!groupOrderList.contains(IMPORTED_GROUP)) {
-			groupOrderList.add(IMPORTED_GROUP); // Add if not present
-			ensureSpecialGroupsOrder(); // Ensure it's placed correctly
-		}
-		int importedCount = 0;
-		long maxId = findMaxMarkerId();
+
+		final int total = loadedMarkers.size();
+		final List<ScreenMarkerOverlay> importedOverlays = new ArrayList<>();
+		int processed = 0;
 
 		for (ScreenMarker markerData : loadedMarkers) {
-			if (markerData == null) {
-				continue;
+			if (++processed % IMPORT_PROGRESS_STEP == 0) {
+				reportImportProgress(generation, processed, total);
 			}
 
-			final long originalMarkerId = markerData.getId();
-			boolean alreadyImported = importedGroupList.stream()
-					.map(ScreenMarkerOverlay::getMarker)
-					.filter(m -> m.getImportedId() != null)
-					.anyMatch(existingMarker -> originalMarkerId == existingMarker.getImportedId());
-
-			if (alreadyImported) {
+			// Also skips markers listed twice in the original config
+			if (markerData == null || !importedIds.add(markerData.getId())) {
 				continue;
 			}
 
+			final long originalMarkerId = markerData.getId();
+
 			// Apply defaults for potentially missing fields from older plugin versions
 			if (markerData.getColor() == null) {
 				markerData.setColor(ScreenMarkerGroupsPluginPanel.DEFAULT_BORDER_COLOR);
@@ -999,19 +2554,18 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 				markerData.setBorderThickness(ScreenMarkerGroupsPluginPanel.DEFAULT_BORDER_THICKNESS);
 			}
 
-			// Generate a new unique ID
-			long newId = Math.max(Instant.now().toEpochMilli(), maxId + 1);
-			maxId = newId; // Update maxId for the next iteration
-
-			// Create a new marker object with the new ID and copied properties
+			// Create a new marker object with the copied properties. Its id is only
+			// allocated once the import is kept, in finishImport
 			ScreenMarker newMarker = new ScreenMarker(
-					newId,
+					0,
 					markerData.getName(),
 					markerData.getBorderThickness(),
 					markerData.getColor(),
 					markerData.getFill(),
 					markerData.isVisible(),
 					markerData.isLabelled(),
+					null,
+					null,
 					null);
 			newMarker.setImportedId(originalMarkerId); // Store the original ID
 
@@ -1019,78 +2573,153 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 			ScreenMarkerOverlay newOverlay = new ScreenMarkerOverlay(newMarker, this);
 
 			// Try to read original position and size using original ID
-			Point originalLocation = parsePoint(
-					configManager.getConfiguration(OVERLAY_CONFIG_GROUP,
-							"marker" + originalMarkerId + "_preferredLocation"));
-			Dimension originalSize = parseDimension(
-					configManager.getConfiguration(OVERLAY_CONFIG_GROUP,
-							"marker" + originalMarkerId + "_preferredSize"));
-
-			// Set location/size on the overlay object
-			if (originalLocation != null) {
-				newOverlay.setPreferredLocation(originalLocation);
-			}
-			if (originalSize != null) {
-				newOverlay.setPreferredSize(originalSize);
-			}
-
-			// Explicitly save the location and size config using the NEW ID
-			String newLocationKey = "marker" + newId + "_preferredLocation";
-			String newSizeKey = "marker" + newId + "_preferredSize";
-
-			if (originalLocation != null) {
-				configManager.setConfiguration(OVERLAY_CONFIG_GROUP, newLocationKey,
-						originalLocation.x + ":" + originalLocation.y);
-			} else {
-				configManager.unsetConfiguration(OVERLAY_CONFIG_GROUP, newLocationKey);
+			String originalLocation = configManager.getConfiguration(OVERLAY_CONFIG_GROUP,
+					"marker" + originalMarkerId + "_preferredLocation");
+			String originalSize = configManager.getConfiguration(OVERLAY_CONFIG_GROUP,
+					"marker" + originalMarkerId + "_preferredSize");
+			Point location = parsePoint(originalLocation);
+			Dimension size = parseDimension(originalSize);
+
+			// The bounds are written to the overlay config under the new id in finishImport
+			if (location != null) {
+				newOverlay.setPreferredLocation(location);
 			}
-
-			if (originalSize != null) {
-				configManager.setConfiguration(OVERLAY_CONFIG_GROUP, newSizeKey,
-						originalSize.width + "x" + originalSize.height);
-			} else {
-				configManager.unsetConfiguration(OVERLAY_CONFIG_GROUP, newSizeKey);
+			if (size != null) {
+				newOverlay.setPreferredSize(size);
 			}
 
-			// Add the new overlay to the internal group list
-			importedGroupList.add(newOverlay);
-
-			// Add to overlay manager IF the group is visible AND the marker is visible
-			if (isGroupVisible(IMPORTED_GROUP) && newMarker.isVisible()) {
-				overlayManager.add(newOverlay);
-			}
+			importedOverlays.add(newOverlay);
+		}
 
-			// Save the overlay's marker data (JSON blob) using the OverlayManager
-			overlayManager.saveOverlay(newOverlay);
+		SwingUtilities.invokeLater(() -> finishImport(generation, importedOverlays));
+	}
 
-			importedCount++;
+	/**
+	 * Adds the markers converted by {@link #readScreenMarkerImport} to the
+	 * "Imported" group, then saves the group and rebuilds the panel once. Marker
+	 * ids are allocated and the overlay bounds written only here, after the
+	 * import was found to still apply to the active profile, so an abandoned
+	 * import leaves nothing behind.
+	 *
+	 * @param generation       The import generation the import was started in.
+	 * @param importedOverlays The overlays of the converted markers.
+	 */
+	private void finishImport(int generation, List<ScreenMarkerOverlay> importedOverlays) {
+		importInProgress = false;
+		if (pluginPanel == null) {
+			return;
+		}
+		pluginPanel.clearImportProgress();
+		if (generation != stateGeneration) {
+			return;
 		}
 
-		if (importedCount > 0) {
-			updateGroupsConfig();
-			SwingUtilities.invokeLater(pluginPanel::rebuild);
-			JOptionPane.showMessageDialog(pluginPanel,
-					"Successfully imported " + importedCount + " marker(s) into the '" + IMPORTED_GROUP + "' group.",
-					"Import Successful", JOptionPane.INFORMATION_MESSAGE);
-		} else {
+		if (importedOverlays.isEmpty()) {
 			JOptionPane.showMessageDialog(pluginPanel,
 					"No new markers were imported (they might already exist in the 'Imported' group).",
 					"Import Information", JOptionPane.INFORMATION_MESSAGE);
+			return;
+		}
+
+		List<ScreenMarkerOverlay> importedGroupList = markerGroups.computeIfAbsent(IMPORTED_GROUP,
+				k -> new ArrayList<>());
+		if (!groupOrderList.contains(IMPORTED_GROUP)) {
+			groupOrderList.add(IMPORTED_GROUP); // Add if not present
+			ensureSpecialGroupsOrder(); // Ensure it's placed correctly
+		}
+
+		for (ScreenMarkerOverlay importedOverlay : importedOverlays) {
+			// Kept above the clock so the id cannot collide with the overlay config of
+			// markers created by the original plugin
+			importedOverlay.getMarker().setId(markerIds.allocate(Instant.now().toEpochMilli()));
+
+			// The new id has never been used, so there is nothing to unset when a value
+			// is missing
+			final Point location = importedOverlay.getPreferredLocation();
+			final Dimension size = importedOverlay.getPreferredSize();
+			if (location != null) {
+				configManager.setConfiguration(OVERLAY_CONFIG_GROUP, importedOverlay.getName() + "_preferredLocation",
+						location.x + ":" + location.y);
+			}
+			if (size != null) {
+				configManager.setConfiguration(OVERLAY_CONFIG_GROUP, importedOverlay.getName() + "_preferredSize",
+						size.width + "x" + size.height);
+			}
+		}
+
+		importedGroupList.addAll(importedOverlays);
+		for (ScreenMarkerOverlay importedOverlay : importedOverlays) {
+			indexMarker(importedOverlay, IMPORTED_GROUP);
+			addMarkerOverlay(importedOverlay);
 		}
+
+		publishRenderSnapshot();
+		updateGroupConfig(IMPORTED_GROUP);
+		updateManifestConfig();
+		pluginPanel.rebuild();
+		JOptionPane.showMessageDialog(pluginPanel,
+				"Successfully imported " + importedOverlays.size() + " marker(s) into the '" + IMPORTED_GROUP
+						+ "' group.",
+				"Import Successful", JOptionPane.INFORMATION_MESSAGE);
+	}
+
+	/**
+	 * Ends an import without importing anything and shows a message explaining
+	 * why. May be called from any thread.
+	 *
+	 * @param generation  The import generation the import was started in.
+	 * @param message     The message to show.
+	 * @param title       The title of the message dialog.
+	 * @param messageType The JOptionPane message type.
+	 */
+	private void showImportMessage(int generation, String message, String title, int messageType) {
+		SwingUtilities.invokeLater(() -> {
+			importInProgress = false;
+			if (pluginPanel == null) {
+				return;
+			}
+			pluginPanel.clearImportProgress();
+			if (generation != stateGeneration) {
+				return;
+			}
+			JOptionPane.showMessageDialog(pluginPanel, message, title, messageType);
+		});
+	}
+
+	/**
+	 * Shows the progress of a running import in the panel. May be called from
+	 * any thread.
+	 *
+	 * @param generation The import generation the import was started in.
+	 * @param processed  The number of markers processed so far.
+	 * @param total      The total number of markers to process.
+	 */
+	private void reportImportProgress(int generation, int processed, int total) {
+		SwingUtilities.invokeLater(() -> {
+			if (generation == stateGeneration && importInProgress && pluginPanel != null) {
+				pluginPanel.setImportProgress(processed, total);
+			}
+		});
 	}
 
 	/**
-	 * Finds the maximum marker ID currently used within this plugin.
-	 * Used to help generate unique IDs during import.
+	 * Reads a marker overlay's saved location and size from the overlay config.
+	 * OverlayManager does this itself when an overlay is added, but in batched
+	 * mode marker overlays are not registered until Alt is held.
 	 *
-	 * @return The maximum ID found, or 0 if no markers exist.
+	 * @param markerOverlay The overlay to load the bounds for.
 	 */
-	private long findMaxMarkerId() {
-		return markerGroups.values().stream()
-				.flatMap(List::stream)
-				.map(overlay -> overlay.getMarker().getId())
-				.max(Long::compare)
-				.orElse(0L);
+	private void loadOverlayBounds(ScreenMarkerOverlay markerOverlay) {
+		Point location = parsePoint(configManager.getConfiguration(OVERLAY_CONFIG_GROUP,
+				markerOverlay.getName() + "_preferredLocation"));
+		Dimension size = parseDimension(configManager.getConfiguration(OVERLAY_CONFIG_GROUP,
+				markerOverlay.getName() + "_preferredSize"));
+		if (location != null) {
+			markerOverlay.setPreferredLocation(location);
+		}
+		if (size != null) {
+			markerOverlay.setPreferredSize(size);
+		}
 	}
 
 	/**
@@ -1183,4 +2812,33 @@ public class ScreenMarkerGroupsPlugin extends Plugin {
 			groupOrderList.add(IMPORTED_GROUP);
 		}
 	}
+
+	/**
+	 * Groups read from the config, ready to be installed as the plugin state.
+	 */
+	@Value
+	private static class LoadedGroups {
+		ScreenMarkerGroupsManifest manifest;
+		Map<String, List<ScreenMarkerOverlay>> groups;
+		/**
+		 * The config values the groups were read from, keyed by config key.
+		 */
+		Map<String, String> configValues;
+		/**
+		 * Whether the groups were read from legacy config keys, which are migrated.
+		 */
+		boolean legacy;
+
+		/**
+		 * Returns an empty state for a config that failed to load. It matches no
+		 * config, so it is never reused from the profile cache.
+		 *
+		 * @return Groups without any markers.
+		 */
+		static LoadedGroups empty() {
+			final Map<String, String> configValues = Collections.synchronizedMap(new HashMap<>());
+			configValues.put(CONFIG_KEY_MANIFEST, ScreenMarkerProfileCache.UNSAVED);
+			return new LoadedGroups(new ScreenMarkerGroupsManifest(), new LinkedHashMap<>(), configValues, false);
+		}
+	}
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import com.google.common.base.Strings;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams markers out of the stored config JSON and hands each one over as
+ * soon as it has been read, so the config is never held as a fully
+ * deserialized copy next to the overlays built from it.
+ * <p>
+ * Each marker is parsed on its own, so an entry that cannot be converted is
+ * skipped without losing the others. If the JSON itself is cut off or
+ * malformed, the markers read up to that point are kept. Exceptions thrown by
+ * the consumers are not caught.
+ */
+@Slf4j
+class ScreenMarkerGroupsReader {
+	private final Gson gson;
+	private final TypeAdapter<JsonElement> elementAdapter;
+	private final TypeAdapter<ScreenMarker> markerAdapter;
+
+	ScreenMarkerGroupsReader(Gson gson) {
+		this.gson = gson;
+		this.elementAdapter = gson.getAdapter(JsonElement.class);
+		this.markerAdapter = gson.getAdapter(ScreenMarker.class);
+	}
+
+	/**
+	 * Reads a JSON array of markers, as stored for a single group.
+	 *
+	 * @param json     The JSON to read, may be null or empty.
+	 * @param consumer Receives each marker read.
+	 */
+	void readMarkers(String json, Consumer<ScreenMarker> consumer) {
+		if (Strings.isNullOrEmpty(json)) {
+			return;
+		}
+		try (JsonReader reader = gson.newJsonReader(new StringReader(json))) {
+			readMarkerArray(reader, consumer);
+		} catch (IOException | JsonParseException e) {
+			// Keep the markers read before the malformed part
+			log.warn("Skipping the rest of malformed marker JSON", e);
+		}
+	}
+
+	/**
+	 * Reads a JSON object of group names to arrays of markers, as stored by the
+	 * legacy single-key config layout. Groups whose value is not an array are
+	 * skipped.
+	 *
+	 * @param json          The JSON to read, may be null or empty.
+	 * @param groupConsumer Called with the name of each group, returns the
+	 *                      consumer receiving the markers of that group.
+	 */
+	void readGroups(String json, Function<String, Consumer<ScreenMarker>> groupConsumer) {
+		if (Strings.isNullOrEmpty(json)) {
+			return;
+		}
+		try (JsonReader reader = gson.newJsonReader(new StringReader(json))) {
+			if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				return;
+			}
+			reader.beginObject();
+			while (reader.hasNext()) {
+				final String groupName = reader.nextName();
+				if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+					reader.skipValue();
+					continue;
+				}
+				readMarkerArray(reader, groupConsumer.apply(groupName));
+			}
+			reader.endObject();
+		} catch (IOException | JsonParseException e) {
+			// Keep the groups and markers read before the malformed part
+			log.warn("Skipping the rest of malformed marker group JSON", e);
+		}
+	}
+
+	private void readMarkerArray(JsonReader reader, Consumer<ScreenMarker> consumer) throws IOException {
+		if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+			reader.skipValue();
+			return;
+		}
+		reader.beginArray();
+		while (reader.hasNext()) {
+			// Read the entry as a tree first, so the reader is past it even if the
+			// entry cannot be converted to a marker
+			final JsonElement element = elementAdapter.read(reader);
+			final ScreenMarker marker;
+			try {
+				marker = markerAdapter.fromJsonTree(element);
+			} catch (JsonParseException e) {
+				log.debug("Skipping marker that failed to parse: {}", element, e);
+				continue;
+			}
+			if (marker != null) {
+				consumer.accept(marker);
+			}
+		}
+		reader.endArray();
+	}
+}
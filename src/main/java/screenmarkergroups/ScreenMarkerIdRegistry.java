@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates marker ids and maps them to a value, such as the name of the group
+ * containing the marker.
+ * <p>
+ * Ids are handed out from a monotonic counter, which is persisted with the
+ * group manifest and restored once when the config is loaded, so allocating an
+ * id never has to scan the existing markers. The map is a
+ * {@link ScreenMarkerLongMap}, so lookups do not box the id.
+ *
+ * @param <V> The type of value stored for each id.
+ */
+class ScreenMarkerIdRegistry<V> {
+	private final AtomicLong nextId = new AtomicLong(1);
+
+	private final ScreenMarkerLongMap<V> values = new ScreenMarkerLongMap<>();
+
+	/**
+	 * Allocates a new, unused marker id.
+	 *
+	 * @return The allocated id.
+	 */
+	long allocate() {
+		return allocate(0);
+	}
+
+	/**
+	 * Allocates a new, unused marker id which is at least the given value. The
+	 * counter continues from the returned id.
+	 *
+	 * @param floor The lowest id to return.
+	 * @return The allocated id.
+	 */
+	long allocate(long floor) {
+		while (true) {
+			final long next = nextId.get();
+			final long id = Math.max(next, floor);
+			if (nextId.compareAndSet(next, id + 1)) {
+				return id;
+			}
+		}
+	}
+
+	/**
+	 * Returns the id the next call to {@link #allocate()} will return. This is
+	 * the value persisted with the manifest.
+	 *
+	 * @return The next id.
+	 */
+	long getNextId() {
+		return nextId.get();
+	}
+
+	/**
+	 * Moves the counter forward so that it does not return ids below the given
+	 * value. Never moves the counter back.
+	 *
+	 * @param next The lowest id the counter may return from now on.
+	 */
+	void restore(long next) {
+		nextId.accumulateAndGet(next, Math::max);
+	}
+
+	/**
+	 * Returns the value stored for an id.
+	 *
+	 * @param id The marker id.
+	 * @return The stored value, or null if the id is not registered.
+	 */
+	synchronized V get(long id) {
+		return values.get(id);
+	}
+
+	/**
+	 * Stores a value for an id, replacing any previous value. Registering an id
+	 * also moves the counter past it, so loaded ids are never handed out again.
+	 *
+	 * @param id    The marker id.
+	 * @param value The value to store, must not be null.
+	 */
+	synchronized void put(long id, V value) {
+		restore(id + 1);
+		values.put(id, value);
+	}
+
+	/**
+	 * Removes the value stored for an id. The id is not handed out again.
+	 *
+	 * @param id The marker id.
+	 */
+	synchronized void remove(long id) {
+		values.remove(id);
+	}
+
+	/**
+	 * Removes all values and resets the counter, before loading another config.
+	 */
+	synchronized void clear() {
+		values.clear();
+		nextId.set(1);
+	}
+
+	/**
+	 * @return The number of registered ids.
+	 */
+	synchronized int size() {
+		return values.size();
+	}
+}
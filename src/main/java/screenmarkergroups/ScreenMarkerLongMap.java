@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map over primitive {@code long} keys, so lookups do not
+ * box the key. Collisions are resolved by linear probing, and removals shift
+ * the following entries of the probe sequence back instead of leaving
+ * tombstones. Null values are not allowed. Not thread safe.
+ *
+ * @param <V> The type of value stored for each key.
+ */
+class ScreenMarkerLongMap<V> {
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys = new long[MIN_CAPACITY];
+	private Object[] values = new Object[MIN_CAPACITY];
+	private int size;
+
+	/**
+	 * @param key The key to look up.
+	 * @return The value stored for the key, or null if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	V get(long key) {
+		final int slot = find(key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+
+	/**
+	 * Stores a value for a key, replacing any previous value.
+	 *
+	 * @param key   The key.
+	 * @param value The value to store, must not be null.
+	 */
+	void put(long key, V value) {
+		final int slot = find(key);
+		if (slot >= 0) {
+			values[slot] = value;
+			return;
+		}
+
+		if ((size + 1) * 4 > keys.length * 3) {
+			resize(keys.length * 2);
+		}
+		insert(key, value);
+		size++;
+	}
+
+	/**
+	 * Removes the value stored for a key.
+	 *
+	 * @param key The key.
+	 * @return The removed value, or null if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	V remove(long key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return null;
+		}
+		final V removed = (V) values[slot];
+
+		// Shift the following entries of the probe sequence back so lookups do not
+		// need tombstones.
+		final int mask = keys.length - 1;
+		int next = (slot + 1) & mask;
+		while (values[next] != null) {
+			final int home = homeSlot(keys[next], keys.length);
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		values[slot] = null;
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Removes all values, shrinking the table back to its initial capacity.
+	 */
+	void clear() {
+		if (keys.length > MIN_CAPACITY) {
+			keys = new long[MIN_CAPACITY];
+			values = new Object[MIN_CAPACITY];
+		} else {
+			Arrays.fill(values, null);
+		}
+		size = 0;
+	}
+
+	/**
+	 * @return The number of stored values.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of slots in the table.
+	 */
+	int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Returns the slot a key is first looked up in, before probing.
+	 *
+	 * @param key      The key.
+	 * @param capacity The number of slots, a power of two.
+	 * @return The home slot of the key.
+	 */
+	static int homeSlot(long key, int capacity) {
+		// Keys are sequential ids, millisecond timestamps or packed grid cells, so spread the low bits
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+	}
+
+	private int find(long key) {
+		final int mask = keys.length - 1;
+		for (int slot = homeSlot(key, keys.length); values[slot] != null; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private void insert(long key, Object value) {
+		final int mask = keys.length - 1;
+		int slot = homeSlot(key, keys.length);
+		while (values[slot] != null) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+	}
+
+	private void resize(int capacity) {
+		final long[] oldKeys = keys;
+		final Object[] oldValues = values;
+		keys = new long[capacity];
+		values = new Object[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != null) {
+				insert(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+}
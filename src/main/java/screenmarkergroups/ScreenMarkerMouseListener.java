@@ -67,8 +67,8 @@ class ScreenMarkerMouseListener extends MouseAdapter {
 
 	/**
 	 * Handles the initial mouse press for marker creation.
-	 * If left-clicking on a highlighted widget, creates a marker matching the
-	 * widget bounds.
+	 * If left-clicking on a highlighted widget, creates a marker anchored to that
+	 * widget.
 	 * If left-clicking elsewhere, starts the drag-to-create process.
 	 * If right-clicking during creation, cancels the process.
 	 *
@@ -83,10 +83,11 @@ class ScreenMarkerMouseListener extends MouseAdapter {
 
 		if (SwingUtilities.isLeftMouseButton(event)) {
 			if (plugin.isCreatingScreenMarker()) {
-				final Rectangle bounds = plugin.getSelectedWidgetBounds();
+				final ScreenMarkerWidgetHighlightTracker.Selection selection = plugin.getSelectedWidget();
 
-				if (bounds != null) {
-					plugin.startCreation(bounds.getLocation(), bounds.getSize());
+				if (selection != null) {
+					final Rectangle bounds = selection.getBounds();
+					plugin.startCreation(bounds.getLocation(), bounds.getSize(), selection.getAnchor());
 					plugin.completeSelection();
 				} else if (plugin.getStartLocation() == null) {
 					plugin.startCreation(event.getPoint(), ScreenMarkerGroupsPlugin.DEFAULT_SIZE);
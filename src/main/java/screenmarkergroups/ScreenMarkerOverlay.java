@@ -26,10 +26,10 @@
  */
 package screenmarkergroups;
 
-import java.awt.BasicStroke;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
-// Inject import removed as it's unused
+import java.awt.Point;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import net.runelite.client.ui.overlay.Overlay;
@@ -38,7 +38,8 @@ import net.runelite.client.ui.overlay.OverlayPosition;
 
 /**
  * Overlay responsible for rendering a single screen marker on the game screen.
- * Handles visibility based on both the marker's state and its group's state.
+ * Draws from the marker's immutable render state, which carries both the
+ * marker's and its group's visibility.
  */
 public class ScreenMarkerOverlay extends Overlay {
 	@Getter
@@ -46,11 +47,35 @@ public class ScreenMarkerOverlay extends Overlay {
 	private final ScreenMarkerRenderable screenMarkerRenderable;
 	private final ScreenMarkerGroupsPlugin plugin;
 
+	/**
+	 * The most recently published render state of this marker. Written by the
+	 * thread editing the marker, read by the client thread.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private volatile ScreenMarkerRenderState renderState;
+
+	/**
+	 * Set when the marker was edited and a new render state has to be created on
+	 * the next snapshot. Only accessed by the thread editing markers.
+	 */
+	private boolean renderStateStale = true;
+
+	// Render state the renderable was last configured for, only used by the client thread
+	private ScreenMarkerRenderState renderedState;
+
+	// Bounds and canvas the off-canvas check was last performed for
+	private int culledX;
+	private int culledY;
+	private int culledWidth;
+	private int culledHeight;
+	private int culledCanvasVersion = -1;
+	private boolean offCanvas;
+
 	/**
 	 * Constructs the overlay for a given screen marker.
 	 *
 	 * @param marker The screen marker data object. Cannot be null.
-	 * @param plugin The main plugin instance, used for checking group visibility.
+	 * @param plugin The main plugin instance, used for the render settings.
 	 */
 	ScreenMarkerOverlay(@NonNull ScreenMarker marker, ScreenMarkerGroupsPlugin plugin) {
 		this.marker = marker;
@@ -75,19 +100,42 @@ public class ScreenMarkerOverlay extends Overlay {
 		return "marker" + marker.getId();
 	}
 
+	/**
+	 * Sets the location of the marker, keeping the plugin's spatial index up to
+	 * date. Also called by the OverlayRenderer while the marker is dragged.
+	 *
+	 * @param preferredLocation The new location.
+	 */
+	@Override
+	public void setPreferredLocation(Point preferredLocation) {
+		super.setPreferredLocation(preferredLocation);
+		plugin.getSpatialIndex().update(this);
+	}
+
+	/**
+	 * Sets the size of the marker, keeping the plugin's spatial index up to
+	 * date. Also called by the OverlayRenderer while the marker is resized.
+	 *
+	 * @param preferredSize The new size.
+	 */
+	@Override
+	public void setPreferredSize(Dimension preferredSize) {
+		super.setPreferredSize(preferredSize);
+		plugin.getSpatialIndex().update(this);
+	}
+
 	/**
 	 * Renders the screen marker overlay.
 	 * Checks both the marker's visibility and its group's visibility before
-	 * drawing.
+	 * drawing, and skips markers that are off-canvas or fully transparent.
 	 *
 	 * @param graphics Graphics2D context for drawing.
 	 * @return The dimensions of the rendered overlay, or null if not rendered.
 	 */
 	@Override
 	public Dimension render(Graphics2D graphics) {
-		String groupName = plugin.findGroupForMarker(this);
-
-		if (!marker.isVisible() || (groupName != null && !plugin.isGroupVisible(groupName))) {
+		final ScreenMarkerRenderState state = renderState;
+		if (state == null || !state.isVisible()) {
 			return null;
 		}
 
@@ -96,12 +144,86 @@ public class ScreenMarkerOverlay extends Overlay {
 			return null;
 		}
 
-		screenMarkerRenderable.setBorderThickness(marker.getBorderThickness());
-		screenMarkerRenderable.setColor(marker.getColor());
-		screenMarkerRenderable.setFill(marker.getFill());
-		screenMarkerRenderable.setStroke(new BasicStroke(marker.getBorderThickness()));
+		final ScreenMarkerCullState cullState = getCullState(state);
+		if (cullState.isCulled()) {
+			plugin.getCullStats().recordCulled(cullState);
+			return null;
+		}
+		plugin.getCullStats().recordDrawn();
+
+		if (state != renderedState) {
+			screenMarkerRenderable.setBorderThickness(state.getBorderThickness());
+			screenMarkerRenderable.setColor(state.getColor());
+			screenMarkerRenderable.setFill(state.getFill());
+			screenMarkerRenderable.setStroke(state.getStroke());
+			screenMarkerRenderable.setLabel(state.getLabel());
+			screenMarkerRenderable.invalidateSprite();
+			renderedState = state;
+		}
+		screenMarkerRenderable.setFillVisible(cullState != ScreenMarkerCullState.BORDER_ONLY);
+		screenMarkerRenderable.setBorderVisible(cullState != ScreenMarkerCullState.FILL_ONLY);
 		screenMarkerRenderable.setSize(preferredSize);
-		screenMarkerRenderable.setLabel(marker.isLabelled() ? marker.getName() : "");
+		if (plugin.isSpriteCacheEnabled()) {
+			return screenMarkerRenderable.renderCached(graphics, plugin.getSpriteCache());
+		}
 		return screenMarkerRenderable.render(graphics);
 	}
+
+	/**
+	 * Returns how this marker has to be drawn. The style part comes from the
+	 * render state, and the off-canvas check only runs again when the marker's
+	 * bounds or the canvas size changed.
+	 *
+	 * @param state The render state being drawn.
+	 * @return The current cull state of the marker.
+	 */
+	private ScreenMarkerCullState getCullState(ScreenMarkerRenderState state) {
+		final ScreenMarkerCullState styleCullState = state.getCullState();
+		if (styleCullState.isCulled()) {
+			return styleCullState;
+		}
+
+		final Point location = getPreferredLocation();
+		final Dimension size = getPreferredSize();
+		if (location == null || size == null) {
+			return styleCullState;
+		}
+
+		final int canvasVersion = plugin.getCanvasVersion();
+		if (location.x != culledX || location.y != culledY || size.width != culledWidth
+				|| size.height != culledHeight || canvasVersion != culledCanvasVersion) {
+			culledX = location.x;
+			culledY = location.y;
+			culledWidth = size.width;
+			culledHeight = size.height;
+			culledCanvasVersion = canvasVersion;
+			offCanvas = plugin.isOffCanvas(location.x, location.y, size.width, size.height);
+		}
+		return offCanvas ? ScreenMarkerCullState.OFF_CANVAS : styleCullState;
+	}
+
+	/**
+	 * Returns the render state of this marker for a new snapshot, creating a new
+	 * one only if the marker was edited or its group's visibility changed.
+	 *
+	 * @param groupVisible Whether the marker's group is currently visible.
+	 * @return The up to date render state.
+	 */
+	ScreenMarkerRenderState updateRenderState(boolean groupVisible) {
+		ScreenMarkerRenderState state = renderState;
+		if (renderStateStale || state == null || state.isGroupVisible() != groupVisible) {
+			state = ScreenMarkerRenderState.of(this, groupVisible);
+			renderState = state;
+			renderStateStale = false;
+		}
+		return state;
+	}
+
+	/**
+	 * Marks the render state of this marker as out of date, so the next snapshot
+	 * captures the marker's current properties.
+	 */
+	void invalidateRenderState() {
+		renderStateStale = true;
+	}
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.Value;
+
+/**
+ * Keeps the fully built marker models of recently used profiles, so that
+ * switching back to one of them swaps the model in instead of parsing the
+ * config again. The least recently used model is evicted first.
+ * <p>
+ * Each model records the config values it was read from or last saved as. A
+ * model is only reused while the config of its profile still holds exactly
+ * those values, so a model whose config was changed elsewhere is parsed again.
+ * Keys with edits that were not saved before the switch are recorded as
+ * {@link #UNSAVED} until the edits are written, so a model whose last edits
+ * were never saved is parsed again as well.
+ */
+class ScreenMarkerProfileCache {
+	/**
+	 * Recorded in place of the value of a config key whose latest edits are not
+	 * saved yet. Never matches a config value, as serialized JSON escapes NUL.
+	 */
+	static final String UNSAVED = "\0unsaved";
+
+	/**
+	 * The state of the plugin for one profile.
+	 */
+	@Value
+	static class Model {
+		Map<String, List<ScreenMarkerOverlay>> groups;
+		List<String> order;
+		Map<String, Boolean> visibility;
+		Map<String, Boolean> expansion;
+		List<Map<String, Boolean>> visibilityPresets;
+		Map<String, List<Integer>> regions;
+		Map<String, String> conditions;
+		long nextMarkerId;
+		/**
+		 * The config values the model matches, keyed by config key. A null value
+		 * means the key was not set, {@link #UNSAVED} that its edits were not
+		 * saved.
+		 */
+		Map<String, String> configValues;
+
+		/**
+		 * Checks whether the config still holds the values the model matches.
+		 *
+		 * @param config Looks up the current value of a config key.
+		 * @return True if the model is up to date with the config.
+		 */
+		boolean matches(Function<String, String> config) {
+			synchronized (configValues) {
+				for (Map.Entry<String, String> entry : configValues.entrySet()) {
+					final String value = config.apply(entry.getKey());
+					if (value == null ? entry.getValue() != null : !value.equals(entry.getValue())) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
+	private final Map<Long, Model> models = new LinkedHashMap<>(16, 0.75f, true);
+	private int maxSize;
+
+	ScreenMarkerProfileCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Sets the number of models kept, evicting the least recently used models
+	 * beyond it. 0 disables the cache.
+	 *
+	 * @param maxSize The maximum number of models.
+	 */
+	synchronized void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		trim();
+	}
+
+	/**
+	 * Stores the model of a profile that is no longer active.
+	 *
+	 * @param profileId The id of the profile.
+	 * @param model     The model of the profile.
+	 */
+	synchronized void put(long profileId, Model model) {
+		if (maxSize <= 0) {
+			return;
+		}
+		models.put(profileId, model);
+		trim();
+	}
+
+	/**
+	 * Removes and returns the model of a profile that is becoming active.
+	 *
+	 * @param profileId The id of the profile.
+	 * @return The cached model, or null if the profile has none.
+	 */
+	synchronized Model take(long profileId) {
+		return models.remove(profileId);
+	}
+
+	/**
+	 * Removes all models.
+	 */
+	synchronized void clear() {
+		models.clear();
+	}
+
+	/**
+	 * @return The number of cached models.
+	 */
+	synchronized int size() {
+		return models.size();
+	}
+
+	private void trim() {
+		final Iterator<Model> iterator = models.values().iterator();
+		while (models.size() > Math.max(maxSize, 0) && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.BasicStroke;
+import java.awt.Stroke;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, interned instances of the strokes used while rendering markers.
+ * Strokes are requested every frame for every marker, so handing out a single
+ * instance per thickness keeps the render loop from allocating.
+ */
+final class ScreenMarkerRenderPool {
+	/**
+	 * Dash pattern of the outline drawn while a marker is being created.
+	 */
+	private static final float[] STRIPE_DASH = { 9 };
+
+	/**
+	 * Thicknesses up to this value are looked up in arrays; larger ones fall back
+	 * to a map.
+	 */
+	private static final int ARRAY_POOL_SIZE = 64;
+
+	private static final Stroke[] SOLID_STROKES = new Stroke[ARRAY_POOL_SIZE];
+	private static final Stroke[] STRIPED_STROKES = new Stroke[ARRAY_POOL_SIZE];
+	private static final Map<Integer, Stroke> LARGE_SOLID_STROKES = new ConcurrentHashMap<>();
+	private static final Map<Integer, Stroke> LARGE_STRIPED_STROKES = new ConcurrentHashMap<>();
+
+	private ScreenMarkerRenderPool() {
+	}
+
+	/**
+	 * Returns the shared solid stroke for a border thickness.
+	 *
+	 * @param thickness The stroke width in pixels.
+	 * @return A solid stroke of the given width.
+	 */
+	static Stroke solidStroke(int thickness) {
+		if (thickness >= 0 && thickness < ARRAY_POOL_SIZE) {
+			Stroke stroke = SOLID_STROKES[thickness];
+			if (stroke == null) {
+				stroke = new BasicStroke(thickness);
+				SOLID_STROKES[thickness] = stroke;
+			}
+			return stroke;
+		}
+		return LARGE_SOLID_STROKES.computeIfAbsent(thickness, BasicStroke::new);
+	}
+
+	/**
+	 * Returns the shared dashed stroke used for the outline of a marker being
+	 * created.
+	 *
+	 * @param thickness The stroke width in pixels.
+	 * @return A dashed stroke of the given width.
+	 */
+	static Stroke stripedStroke(int thickness) {
+		if (thickness >= 0 && thickness < ARRAY_POOL_SIZE) {
+			Stroke stroke = STRIPED_STROKES[thickness];
+			if (stroke == null) {
+				stroke = createStripedStroke(thickness);
+				STRIPED_STROKES[thickness] = stroke;
+			}
+			return stroke;
+		}
+		return LARGE_STRIPED_STROKES.computeIfAbsent(thickness, ScreenMarkerRenderPool::createStripedStroke);
+	}
+
+	private static Stroke createStripedStroke(int thickness) {
+		return new BasicStroke(thickness, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, STRIPE_DASH, 0);
+	}
+}
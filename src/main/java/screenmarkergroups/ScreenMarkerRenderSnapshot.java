@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.Collections;
+import java.util.List;
+import lombok.Value;
+
+/**
+ * Immutable, versioned list of the markers to draw, in draw order. A new
+ * snapshot is published by the plugin after every edit; the render path only
+ * ever reads the most recently published one.
+ */
+@Value
+class ScreenMarkerRenderSnapshot {
+	static final ScreenMarkerRenderSnapshot EMPTY = new ScreenMarkerRenderSnapshot(0, Collections.emptyList(),
+			Collections.emptyList());
+
+	/**
+	 * Increases with every published snapshot.
+	 */
+	int version;
+
+	/**
+	 * Render states of all visible markers, group by group in display order.
+	 */
+	List<ScreenMarkerRenderState> visibleMarkers;
+
+	/**
+	 * The visible markers that are anchored to a widget.
+	 */
+	List<ScreenMarkerRenderState> anchoredMarkers;
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Color;
+import java.awt.Stroke;
+import lombok.Value;
+
+/**
+ * Immutable copy of everything needed to draw a single marker. Created on the
+ * thread editing the marker and read by the client thread while rendering, so
+ * the render path never observes a marker or group in the middle of an edit.
+ */
+@Value
+class ScreenMarkerRenderState {
+	ScreenMarkerOverlay overlay;
+	int borderThickness;
+	Color color;
+	Color fill;
+	Stroke stroke;
+	String label;
+	boolean markerVisible;
+	boolean groupVisible;
+
+	/**
+	 * Cull state derived from the style alone; the off-canvas check is left to
+	 * the render thread, as marker bounds are changed by the OverlayRenderer.
+	 */
+	ScreenMarkerCullState cullState;
+
+	/**
+	 * The widget the marker follows, or null if it is not anchored.
+	 */
+	ScreenMarkerWidgetAnchor anchor;
+
+	/**
+	 * @return True if both the marker and its group are visible.
+	 */
+	boolean isVisible() {
+		return markerVisible && groupVisible;
+	}
+
+	/**
+	 * Captures the current state of a marker.
+	 *
+	 * @param overlay      The overlay of the marker.
+	 * @param groupVisible Whether the marker's group is visible.
+	 * @return A new render state for the marker.
+	 */
+	static ScreenMarkerRenderState of(ScreenMarkerOverlay overlay, boolean groupVisible) {
+		final ScreenMarker marker = overlay.getMarker();
+		return new ScreenMarkerRenderState(
+				overlay,
+				marker.getBorderThickness(),
+				marker.getColor(),
+				marker.getFill(),
+				ScreenMarkerRenderPool.solidStroke(marker.getBorderThickness()),
+				marker.isLabelled() && marker.getName() != null ? marker.getName() : "",
+				marker.isVisible(),
+				groupVisible,
+				ScreenMarkerCullState.classifyStyle(marker),
+				ScreenMarkerWidgetAnchor.of(marker));
+	}
+}
@@ -27,8 +27,11 @@ package screenmarkergroups;
 
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
+import java.awt.image.BufferedImage;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -48,10 +51,29 @@ class ScreenMarkerRenderable implements RenderableEntity {
 	private Color fill;
 	private Stroke stroke;
 	private String label;
+	private boolean fillVisible = true;
+	private boolean borderVisible = true;
+
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private Font labelFont;
+
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private int labelAscent;
+
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private ScreenMarkerSpriteCache.SpriteKey spriteKey;
+
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private BufferedImage sprite;
 
 	/**
 	 * Renders the screen marker onto the provided graphics context.
-	 * Draws the fill, border, and label according to the set properties.
+	 * Draws the fill, border, and label according to the set properties, skipping
+	 * the fill or border when they were classified as not visible.
 	 *
 	 * @param graphics The graphics context to draw on.
 	 * @return The dimensions of the rendered marker.
@@ -62,18 +84,98 @@ class ScreenMarkerRenderable implements RenderableEntity {
 		int width = size.width;
 		int height = size.height;
 
-		graphics.setColor(fill);
-		graphics.fillRect(thickness, thickness, width - thickness * 2, height - thickness * 2);
+		if (fillVisible) {
+			graphics.setColor(fill);
+			graphics.fillRect(thickness, thickness, width - thickness * 2, height - thickness * 2);
+		}
 
 		int offset = thickness / 2;
 		graphics.setColor(color);
-		graphics.setStroke(stroke);
-		graphics.drawRect(offset, offset, width - thickness, height - thickness);
+		if (borderVisible) {
+			graphics.setStroke(stroke);
+			graphics.drawRect(offset, offset, width - thickness, height - thickness);
+		}
 
 		if (!label.isEmpty()) {
-			graphics.drawString(label, offset + thickness, offset + thickness + graphics.getFontMetrics().getAscent());
+			graphics.drawString(label, offset + thickness, offset + thickness + labelAscent(graphics));
 		}
 
 		return size;
 	}
+
+	/**
+	 * Returns the ascent of the graphics font, only querying the font metrics when
+	 * the font differs from the one used for the previous label.
+	 *
+	 * @param graphics The graphics context the label is drawn to.
+	 * @return The ascent of the current font.
+	 */
+	private int labelAscent(Graphics2D graphics) {
+		final Font font = graphics.getFont();
+		if (font != labelFont) {
+			labelAscent = graphics.getFontMetrics(font).getAscent();
+			labelFont = font;
+		}
+		return labelAscent;
+	}
+
+	/**
+	 * Renders the screen marker using a pre-rendered image from the sprite cache.
+	 * The image is only looked up again when the marker's style, size or the
+	 * graphics font changed since the previous frame. Markers whose label does not
+	 * fit inside their bounds are drawn directly, as the image would clip it.
+	 *
+	 * @param graphics The graphics context to draw on.
+	 * @param cache    The shared sprite cache.
+	 * @return The dimensions of the rendered marker.
+	 */
+	Dimension renderCached(Graphics2D graphics, ScreenMarkerSpriteCache cache) {
+		if (size.width <= 0 || size.height <= 0
+				|| size.width * size.height > ScreenMarkerSpriteCache.MAX_SPRITE_PIXELS) {
+			return render(graphics);
+		}
+
+		final Font font = graphics.getFont();
+		if (spriteKey == null || !spriteKey.matches(borderThickness, color, fill, label, font, size)) {
+			spriteKey = new ScreenMarkerSpriteCache.SpriteKey(borderThickness,
+					ScreenMarkerSpriteCache.SpriteKey.rgb(color), ScreenMarkerSpriteCache.SpriteKey.rgb(fill), label,
+					font, size.width, size.height);
+			sprite = labelFits(graphics, font) ? cache.get(spriteKey, this, graphics) : null;
+		}
+
+		if (sprite == null) {
+			return render(graphics);
+		}
+
+		graphics.drawImage(sprite, 0, 0, null);
+		return size;
+	}
+
+	/**
+	 * Checks whether the label, drawn where {@link #render(Graphics2D)} places it,
+	 * lies entirely within the marker's bounds.
+	 *
+	 * @param graphics The graphics context the label is drawn to.
+	 * @param font     The font the label is drawn with.
+	 * @return True if the label is empty or fits inside the marker.
+	 */
+	private boolean labelFits(Graphics2D graphics, Font font) {
+		if (label.isEmpty()) {
+			return true;
+		}
+
+		final FontMetrics metrics = graphics.getFontMetrics(font);
+		final int origin = borderThickness / 2 + borderThickness;
+		return origin + metrics.stringWidth(label) <= size.width
+				&& origin + metrics.getAscent() + metrics.getDescent() <= size.height;
+	}
+
+	/**
+	 * Drops the reference to the cached image, forcing it to be looked up again
+	 * on the next cached render.
+	 */
+	void invalidateSprite() {
+		spriteKey = null;
+		sprite = null;
+	}
 }
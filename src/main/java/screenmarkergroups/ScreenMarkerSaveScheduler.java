@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.swing.SwingUtilities;
+
+/**
+ * Coalesces config writes. Edits only mark config keys as dirty; once no
+ * further edit arrived for the debounce window, the dirty keys are captured on
+ * the Swing thread and serialized and written on the executor. Keys are
+ * written in the order they were first marked dirty.
+ */
+class ScreenMarkerSaveScheduler {
+	private final ScheduledExecutorService executor;
+
+	/**
+	 * Captures the value of a config key on the calling (Swing) thread and
+	 * returns a task that serializes and writes it from any thread.
+	 */
+	private final Function<String, Runnable> capture;
+
+	private final Object writeLock = new Object();
+	private final Set<String> dirty = new LinkedHashSet<>();
+	private ScheduledFuture<?> pendingSave;
+	private long debounceMillis;
+
+	// Sequence of captured writes, so an older write never overwrites a newer one
+	private long captureSequence;
+	private final Map<String, Long> lastWrittenSequence = new HashMap<>();
+
+	// Incremented when pending writes are taken, invalidating captured writes not yet started
+	private long generation;
+
+	// Captured writes handed to the executor but not yet started, by sequence
+	private final Map<Long, Map<String, Runnable>> queuedWrites = new LinkedHashMap<>();
+
+	private final AtomicLong writesRequested = new AtomicLong();
+	private final AtomicLong writesPerformed = new AtomicLong();
+	private final AtomicLong writesTaken = new AtomicLong();
+
+	/**
+	 * @param executor       The executor serialization and writes run on.
+	 * @param capture        Captures a dirty config key and returns the write
+	 *                       task for it.
+	 * @param debounceMillis How long to wait for further edits before saving.
+	 */
+	ScreenMarkerSaveScheduler(ScheduledExecutorService executor, Function<String, Runnable> capture,
+			long debounceMillis) {
+		this.executor = executor;
+		this.capture = capture;
+		this.debounceMillis = debounceMillis;
+	}
+
+	/**
+	 * Marks config keys as dirty and (re)starts the debounce timer.
+	 *
+	 * @param keys The config keys whose values changed.
+	 */
+	synchronized void request(String... keys) {
+		writesRequested.incrementAndGet();
+		for (String key : keys) {
+			dirty.add(key);
+		}
+
+		if (pendingSave != null) {
+			pendingSave.cancel(false);
+		}
+		final long scheduledGeneration = generation;
+		pendingSave = executor.schedule(() -> SwingUtilities.invokeLater(() -> save(scheduledGeneration)),
+				debounceMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Captures and writes all dirty keys synchronously on the calling thread.
+	 */
+	void flush() {
+		final Map<String, Runnable> writes;
+		final long sequence;
+		final long currentGeneration;
+		synchronized (this) {
+			if (pendingSave != null) {
+				pendingSave.cancel(false);
+				pendingSave = null;
+			}
+			if (dirty.isEmpty()) {
+				return;
+			}
+			writes = captureDirty();
+			sequence = ++captureSequence;
+			currentGeneration = generation;
+		}
+		write(writes, sequence, currentGeneration);
+	}
+
+	/**
+	 * Captures all dirty keys and takes the captured writes not yet started,
+	 * without running them, so the caller can run them later. Waits for a write
+	 * already in progress to complete, so no pending write runs on its own once
+	 * this returns.
+	 *
+	 * @return The write task of each pending config key, in the order the keys
+	 *         were first marked dirty. Empty if nothing was pending.
+	 */
+	Map<String, Runnable> takePending() {
+		synchronized (writeLock) {
+			synchronized (this) {
+				if (pendingSave != null) {
+					pendingSave.cancel(false);
+					pendingSave = null;
+				}
+				final Map<String, Runnable> writes = new LinkedHashMap<>();
+				// Later captures of a key replace earlier ones
+				queuedWrites.values().forEach(writes::putAll);
+				queuedWrites.clear();
+				if (!dirty.isEmpty()) {
+					writes.putAll(captureDirty());
+				}
+				if (!writes.isEmpty()) {
+					writesTaken.incrementAndGet();
+				}
+				generation++;
+				return writes;
+			}
+		}
+	}
+
+	/**
+	 * @param debounceMillis How long to wait for further edits before saving.
+	 */
+	synchronized void setDebounceMillis(long debounceMillis) {
+		this.debounceMillis = Math.max(0, debounceMillis);
+	}
+
+	/**
+	 * @return The number of times a save was requested.
+	 */
+	long getWritesRequested() {
+		return writesRequested.get();
+	}
+
+	/**
+	 * @return The number of saves that wrote at least one config key.
+	 */
+	long getWritesPerformed() {
+		return writesPerformed.get();
+	}
+
+	/**
+	 * @return The number of times unsaved changes were taken instead of written.
+	 */
+	long getWritesTaken() {
+		return writesTaken.get();
+	}
+
+	/**
+	 * Captures the dirty keys on the Swing thread and hands the write off to the
+	 * executor.
+	 */
+	private void save(long scheduledGeneration) {
+		final Map<String, Runnable> writes;
+		final long sequence;
+		synchronized (this) {
+			if (scheduledGeneration != generation || dirty.isEmpty()) {
+				return;
+			}
+			pendingSave = null;
+			writes = captureDirty();
+			sequence = ++captureSequence;
+			queuedWrites.put(sequence, writes);
+		}
+		executor.execute(() -> write(writes, sequence, scheduledGeneration));
+	}
+
+	/**
+	 * Captures every dirty key and clears the dirty set. Must be called while
+	 * holding the monitor of this scheduler.
+	 */
+	private Map<String, Runnable> captureDirty() {
+		final Map<String, Runnable> writes = new LinkedHashMap<>();
+		for (String key : dirty) {
+			writes.put(key, capture.apply(key));
+		}
+		dirty.clear();
+		return writes;
+	}
+
+	private void write(Map<String, Runnable> writes, long sequence, long writeGeneration) {
+		synchronized (writeLock) {
+			synchronized (this) {
+				// Taken by takePending, which hands it to the caller instead
+				if (writeGeneration != generation) {
+					return;
+				}
+				queuedWrites.remove(sequence);
+			}
+			boolean written = false;
+			for (Map.Entry<String, Runnable> entry : writes.entrySet()) {
+				// A flush may already have written a newer capture of this key
+				if (sequence > lastWrittenSequence.getOrDefault(entry.getKey(), 0L)) {
+					lastWrittenSequence.put(entry.getKey(), sequence);
+					entry.getValue().run();
+					written = true;
+				}
+			}
+			if (written) {
+				writesPerformed.incrementAndGet();
+			}
+		}
+	}
+}
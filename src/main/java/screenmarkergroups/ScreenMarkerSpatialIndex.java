@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over the screen bounds of the markers, for finding the marker
+ * under a point without scanning every marker. Each marker is listed in every
+ * cell its bounds overlap, so a query only looks at the markers of a single
+ * cell. Markers are moved in the grid whenever their overlay is moved or
+ * resized. The cells are keyed by primitive longs, so a query does not
+ * allocate. Accessed from the client thread and the Swing thread.
+ */
+class ScreenMarkerSpatialIndex {
+	// 64 pixel cells
+	private static final int CELL_SHIFT = 6;
+
+	/**
+	 * Markers overlapping more cells than this are kept in a separate list
+	 * checked by every query, instead of being added to all of their cells.
+	 */
+	private static final int MAX_CELLS_PER_MARKER = 256;
+
+	// Indexed markers and their bounds; null bounds for markers without a location yet
+	private final Map<ScreenMarkerOverlay, Rectangle> markerBounds = new IdentityHashMap<>();
+	private final ScreenMarkerLongMap<List<ScreenMarkerOverlay>> cells = new ScreenMarkerLongMap<>();
+	private final List<ScreenMarkerOverlay> oversized = new ArrayList<>();
+
+	/**
+	 * Adds a marker to the index at the current bounds of its overlay.
+	 *
+	 * @param overlay The overlay of the marker.
+	 */
+	synchronized void add(ScreenMarkerOverlay overlay) {
+		if (!markerBounds.containsKey(overlay)) {
+			markerBounds.put(overlay, null);
+			update(overlay);
+		}
+	}
+
+	/**
+	 * Moves an indexed marker to the current bounds of its overlay. Does nothing
+	 * for markers that are not indexed.
+	 *
+	 * @param overlay The overlay of the marker.
+	 */
+	synchronized void update(ScreenMarkerOverlay overlay) {
+		if (!markerBounds.containsKey(overlay)) {
+			return;
+		}
+
+		final Point location = overlay.getPreferredLocation();
+		final Dimension size = overlay.getPreferredSize();
+		final Rectangle bounds = location != null && size != null
+				? new Rectangle(location.x, location.y, size.width, size.height)
+				: null;
+		final Rectangle previous = markerBounds.put(overlay, bounds);
+		if (previous == null ? bounds == null : previous.equals(bounds)) {
+			return;
+		}
+		unlink(overlay, previous);
+		link(overlay, bounds);
+	}
+
+	/**
+	 * Removes a marker from the index.
+	 *
+	 * @param overlay The overlay of the marker.
+	 */
+	synchronized void remove(ScreenMarkerOverlay overlay) {
+		if (markerBounds.containsKey(overlay)) {
+			unlink(overlay, markerBounds.remove(overlay));
+		}
+	}
+
+	/**
+	 * Removes all markers.
+	 */
+	synchronized void clear() {
+		markerBounds.clear();
+		cells.clear();
+		oversized.clear();
+	}
+
+	/**
+	 * Finds the shown marker under a point. If several markers overlap there, the
+	 * smallest one is returned, as it is the most specific.
+	 *
+	 * @param x The x coordinate on the canvas.
+	 * @param y The y coordinate on the canvas.
+	 * @return The marker under the point, or null if there is none.
+	 */
+	synchronized ScreenMarkerOverlay markerAt(int x, int y) {
+		ScreenMarkerOverlay best = pick(cells.get(cellKey(cell(x), cell(y))), x, y, null);
+		best = pick(oversized, x, y, best);
+		return best;
+	}
+
+	/**
+	 * @return The number of indexed markers.
+	 */
+	synchronized int size() {
+		return markerBounds.size();
+	}
+
+	private ScreenMarkerOverlay pick(List<ScreenMarkerOverlay> candidates, int x, int y, ScreenMarkerOverlay best) {
+		if (candidates == null) {
+			return best;
+		}
+		long bestArea = best != null ? area(markerBounds.get(best)) : Long.MAX_VALUE;
+		for (int i = 0; i < candidates.size(); i++) {
+			final ScreenMarkerOverlay candidate = candidates.get(i);
+			final Rectangle bounds = markerBounds.get(candidate);
+			if (!bounds.contains(x, y)) {
+				continue;
+			}
+			final ScreenMarkerRenderState state = candidate.getRenderState();
+			if (state == null || !state.isVisible()) {
+				continue;
+			}
+			final long area = area(bounds);
+			if (area < bestArea) {
+				best = candidate;
+				bestArea = area;
+			}
+		}
+		return best;
+	}
+
+	private void link(ScreenMarkerOverlay overlay, Rectangle bounds) {
+		if (bounds == null || bounds.isEmpty()) {
+			return;
+		}
+		if (cellCount(bounds) > MAX_CELLS_PER_MARKER) {
+			oversized.add(overlay);
+			return;
+		}
+		for (int cx = cell(bounds.x); cx <= cell(bounds.x + bounds.width - 1); cx++) {
+			for (int cy = cell(bounds.y); cy <= cell(bounds.y + bounds.height - 1); cy++) {
+				final long key = cellKey(cx, cy);
+				List<ScreenMarkerOverlay> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<>(2);
+					cells.put(key, cell);
+				}
+				cell.add(overlay);
+			}
+		}
+	}
+
+	private void unlink(ScreenMarkerOverlay overlay, Rectangle bounds) {
+		if (bounds == null || bounds.isEmpty()) {
+			return;
+		}
+		if (cellCount(bounds) > MAX_CELLS_PER_MARKER) {
+			oversized.remove(overlay);
+			return;
+		}
+		for (int cx = cell(bounds.x); cx <= cell(bounds.x + bounds.width - 1); cx++) {
+			for (int cy = cell(bounds.y); cy <= cell(bounds.y + bounds.height - 1); cy++) {
+				final long key = cellKey(cx, cy);
+				final List<ScreenMarkerOverlay> cell = cells.get(key);
+				if (cell != null && cell.remove(overlay) && cell.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+	}
+
+	private static int cell(int coordinate) {
+		return coordinate >> CELL_SHIFT;
+	}
+
+	private static long cellCount(Rectangle bounds) {
+		final long columns = cell(bounds.x + bounds.width - 1) - cell(bounds.x) + 1L;
+		final long rows = cell(bounds.y + bounds.height - 1) - cell(bounds.y) + 1L;
+		return columns * rows;
+	}
+
+	private static long cellKey(int cx, int cy) {
+		return ((long) cx << 32) | (cy & 0xffffffffL);
+	}
+
+	private static long area(Rectangle bounds) {
+		return (long) bounds.width * bounds.height;
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * Bounded cache of pre-rendered marker images. Markers sharing the same style
+ * and size share a single image, so steady-state rendering of a marker is a
+ * single drawImage call. Least recently used images are evicted once the
+ * configured number of entries is exceeded.
+ */
+class ScreenMarkerSpriteCache {
+	/**
+	 * Markers with a larger area than this are drawn directly, as caching them
+	 * would cost more memory than the draw calls it saves.
+	 */
+	static final int MAX_SPRITE_PIXELS = 512 * 512;
+
+	private static final int DEFAULT_MAX_ENTRIES = 128;
+
+	private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+	private final Map<SpriteKey, BufferedImage> sprites = new LinkedHashMap<SpriteKey, BufferedImage>(16, 0.75f,
+			true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<SpriteKey, BufferedImage> eldest) {
+			return size() > maxEntries;
+		}
+	};
+
+	/**
+	 * Returns the image for the given style, rendering it through the renderable
+	 * if it is not cached yet. The renderable must currently hold the style
+	 * described by the key.
+	 *
+	 * @param key        The style and size of the marker.
+	 * @param renderable The renderable used to draw the image on a cache miss.
+	 * @param target     The graphics the image will be drawn to, used for its
+	 *                   rendering hints.
+	 * @return The cached image.
+	 */
+	synchronized BufferedImage get(SpriteKey key, ScreenMarkerRenderable renderable, Graphics2D target) {
+		BufferedImage sprite = sprites.get(key);
+		if (sprite == null) {
+			sprite = new BufferedImage(key.getWidth(), key.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			final Graphics2D graphics = sprite.createGraphics();
+			graphics.setRenderingHints(target.getRenderingHints());
+			graphics.setFont(key.getFont());
+			renderable.render(graphics);
+			graphics.dispose();
+			sprites.put(key, sprite);
+		}
+		return sprite;
+	}
+
+	/**
+	 * Sets the maximum number of cached images, evicting the least recently used
+	 * ones if the cache is currently larger.
+	 *
+	 * @param maxEntries The new maximum number of entries.
+	 */
+	synchronized void setMaxEntries(int maxEntries) {
+		this.maxEntries = Math.max(1, maxEntries);
+		Iterator<BufferedImage> it = sprites.values().iterator();
+		while (sprites.size() > this.maxEntries && it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+	}
+
+	/**
+	 * Drops every cached image.
+	 */
+	synchronized void clear() {
+		sprites.clear();
+	}
+
+	/**
+	 * @return The number of images currently cached.
+	 */
+	synchronized int size() {
+		return sprites.size();
+	}
+
+	/**
+	 * Identifies a marker image by everything that affects how it is drawn.
+	 */
+	@Value
+	static class SpriteKey {
+		int borderThickness;
+		int color;
+		int fill;
+		String label;
+		Font font;
+		int width;
+		int height;
+
+		/**
+		 * Checks whether this key describes the given style, without allocating a
+		 * new key.
+		 *
+		 * @return True if a marker drawn with the given style would use this key.
+		 */
+		boolean matches(int borderThickness, Color color, Color fill, String label, Font font, Dimension size) {
+			return this.borderThickness == borderThickness
+					&& this.color == rgb(color)
+					&& this.fill == rgb(fill)
+					&& this.width == size.width
+					&& this.height == size.height
+					&& this.label.equals(label)
+					&& this.font.equals(font);
+		}
+
+		/**
+		 * @return The ARGB value of the color, or 0 for no color.
+		 */
+		static int rgb(Color color) {
+			return color != null ? color.getRGB() : 0;
+		}
+	}
+}
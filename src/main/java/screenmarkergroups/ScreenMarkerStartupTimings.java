@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each stage of loading the plugin took, for comparing the
+ * synchronous and asynchronous startup modes. Stages may be recorded from
+ * different threads.
+ */
+public class ScreenMarkerStartupTimings {
+	/**
+	 * A stage of startup. In asynchronous mode only {@link #STARTUP} delays the
+	 * client; the other stages run later, in the background or on demand.
+	 */
+	public enum Stage {
+		/**
+		 * The time spent in the plugin's startUp method.
+		 */
+		STARTUP,
+		/**
+		 * Reading the config and creating the marker overlays.
+		 */
+		PARSE,
+		/**
+		 * Installing the loaded groups as the plugin state.
+		 */
+		APPLY,
+		/**
+		 * Registering the marker overlays with the overlay manager.
+		 */
+		OVERLAYS,
+		/**
+		 * Building the sidebar panel for the first time.
+		 */
+		PANEL,
+	}
+
+	private final long[] nanos = new long[Stage.values().length];
+	private final boolean[] recorded = new boolean[Stage.values().length];
+	private int recordedCount;
+
+	/**
+	 * Records a stage as having run from the given start time until now.
+	 *
+	 * @param stage      The stage that finished.
+	 * @param startNanos The {@link System#nanoTime()} the stage started at.
+	 * @return True if this was the last stage to finish since the last reset.
+	 */
+	public synchronized boolean record(Stage stage, long startNanos) {
+		nanos[stage.ordinal()] = System.nanoTime() - startNanos;
+		if (recorded[stage.ordinal()]) {
+			return false;
+		}
+		recorded[stage.ordinal()] = true;
+		return ++recordedCount == recorded.length;
+	}
+
+	/**
+	 * @param stage The stage to get the duration of.
+	 * @return The duration of the stage in milliseconds, or 0 if it has not run
+	 *         since the last reset.
+	 */
+	public synchronized long getMillis(Stage stage) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos[stage.ordinal()]);
+	}
+
+	/**
+	 * Clears all recorded durations.
+	 */
+	synchronized void reset() {
+		Arrays.fill(nanos, 0);
+		Arrays.fill(recorded, false);
+		recordedCount = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		final StringBuilder builder = new StringBuilder();
+		for (Stage stage : Stage.values()) {
+			if (builder.length() > 0) {
+				builder.append(", ");
+			}
+			builder.append(stage.name().toLowerCase()).append('=').append(getMillis(stage)).append("ms");
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/**
+ * A canvas-sized image holding every non-moving marker, composited once and
+ * then blitted each frame. The image is only redrawn when the marker state
+ * version or the canvas size changes.
+ */
+class ScreenMarkerStaticLayer {
+	private BufferedImage image;
+	private int builtVersion;
+
+	/**
+	 * Draws the layer, first rebuilding it if it is out of date.
+	 *
+	 * @param graphics The graphics context to draw on.
+	 * @param version  The current marker state version.
+	 * @param width    The required width of the layer.
+	 * @param height   The required height of the layer.
+	 * @param painter  Draws the markers into the layer when it is rebuilt.
+	 */
+	void render(Graphics2D graphics, int version, int width, int height, Consumer<Graphics2D> painter) {
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+
+		if (image == null || image.getWidth() != width || image.getHeight() != height) {
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			rebuild(graphics, version, painter);
+		} else if (builtVersion != version) {
+			rebuild(graphics, version, painter);
+		}
+
+		graphics.drawImage(image, 0, 0, null);
+	}
+
+	/**
+	 * Releases the layer image.
+	 */
+	void clear() {
+		image = null;
+	}
+
+	private void rebuild(Graphics2D target, int version, Consumer<Graphics2D> painter) {
+		final Graphics2D graphics = image.createGraphics();
+		final Composite composite = graphics.getComposite();
+		graphics.setComposite(AlphaComposite.Clear);
+		graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+		graphics.setComposite(composite);
+
+		graphics.setRenderingHints(target.getRenderingHints());
+		graphics.setFont(target.getFont());
+		painter.accept(graphics);
+		graphics.dispose();
+		builtVersion = version;
+	}
+}
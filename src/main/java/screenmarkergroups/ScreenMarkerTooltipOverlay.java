@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.api.Point;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayLayer;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.tooltip.Tooltip;
+import net.runelite.client.ui.overlay.tooltip.TooltipManager;
+
+/**
+ * Overlay showing the name and group of the marker under the mouse as a
+ * tooltip. The marker is found through the plugin's spatial index, so hovering
+ * costs a single grid cell lookup regardless of the number of markers.
+ */
+class ScreenMarkerTooltipOverlay extends Overlay {
+	private final ScreenMarkerGroupsPlugin plugin;
+	private final Client client;
+	private final TooltipManager tooltipManager;
+
+	@Inject
+	private ScreenMarkerTooltipOverlay(ScreenMarkerGroupsPlugin plugin, Client client, TooltipManager tooltipManager) {
+		this.plugin = plugin;
+		this.client = client;
+		this.tooltipManager = tooltipManager;
+		setPosition(OverlayPosition.DYNAMIC);
+		setLayer(OverlayLayer.ALWAYS_ON_TOP);
+	}
+
+	/**
+	 * Adds the tooltip of the hovered marker, unless tooltips are disabled or a
+	 * marker is being created.
+	 *
+	 * @param graphics Graphics2D context, unused.
+	 * @return null, as this overlay doesn't draw anything itself.
+	 */
+	@Override
+	public Dimension render(Graphics2D graphics) {
+		if (!plugin.isMarkerTooltips() || plugin.isCreatingScreenMarker()) {
+			return null;
+		}
+
+		final Point mouse = client.getMouseCanvasPosition();
+		final ScreenMarkerOverlay marker = plugin.getSpatialIndex().markerAt(mouse.getX(), mouse.getY());
+		if (marker == null) {
+			return null;
+		}
+
+		final String name = marker.getMarker().getName();
+		final String groupName = plugin.findGroupForMarker(marker);
+		tooltipManager.add(new Tooltip(groupName != null ? name + "</br>" + groupName : name));
+		return null;
+	}
+}
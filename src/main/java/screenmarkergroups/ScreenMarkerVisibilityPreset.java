@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A visibility preset compiled against the current group order: one bit per
+ * group index for whether the preset covers the group, and one for whether it
+ * shows it. Groups created after the preset was saved are not covered and
+ * keep their visibility when it is applied.
+ */
+class ScreenMarkerVisibilityPreset {
+	private final BitSet covered;
+	private final BitSet visible;
+
+	private ScreenMarkerVisibilityPreset(BitSet covered, BitSet visible) {
+		this.covered = covered;
+		this.visible = visible;
+	}
+
+	/**
+	 * Compiles a saved preset against a group order.
+	 *
+	 * @param states     The saved visibility of each group in the preset.
+	 * @param groupOrder The current group order.
+	 * @return The compiled preset.
+	 */
+	static ScreenMarkerVisibilityPreset compile(Map<String, Boolean> states, List<String> groupOrder) {
+		final BitSet covered = new BitSet(groupOrder.size());
+		final BitSet visible = new BitSet(groupOrder.size());
+		for (int i = 0; i < groupOrder.size(); i++) {
+			final Boolean state = states.get(groupOrder.get(i));
+			if (state != null) {
+				covered.set(i);
+				visible.set(i, state);
+			}
+		}
+		return new ScreenMarkerVisibilityPreset(covered, visible);
+	}
+
+	/**
+	 * @return The index of the first covered group at or after the given index,
+	 *         or -1 if there is none.
+	 */
+	int nextCovered(int fromIndex) {
+		return covered.nextSetBit(fromIndex);
+	}
+
+	/**
+	 * @param index The index of a covered group.
+	 * @return True if the preset shows the group.
+	 */
+	boolean isVisible(int index) {
+		return visible.get(index);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Rectangle;
+import lombok.Value;
+import net.runelite.api.Client;
+import net.runelite.api.widgets.Widget;
+
+/**
+ * Identifies the widget a marker is anchored to, as found in a menu entry's
+ * params: the packed widget id and the index of the child, or -1 for the
+ * widget itself.
+ */
+@Value
+class ScreenMarkerWidgetAnchor {
+	int widgetId;
+	int childIndex;
+
+	/**
+	 * Returns the anchor stored on a marker.
+	 *
+	 * @param marker The marker.
+	 * @return The marker's anchor, or null if it is not anchored to a widget.
+	 */
+	static ScreenMarkerWidgetAnchor of(ScreenMarker marker) {
+		final Integer widgetId = marker.getWidgetId();
+		if (widgetId == null) {
+			return null;
+		}
+		final Integer childIndex = marker.getWidgetChildIndex();
+		return new ScreenMarkerWidgetAnchor(widgetId, childIndex != null ? childIndex : -1);
+	}
+
+	/**
+	 * Looks up the current bounds of the anchored widget. Must be called on the
+	 * client thread.
+	 *
+	 * @param client The RuneLite client instance.
+	 * @return The widget bounds, or null if the widget is not loaded.
+	 */
+	Rectangle resolve(Client client) {
+		final Widget widget = client.getWidget(widgetId);
+		if (widget == null) {
+			return null;
+		}
+
+		if (childIndex > -1) {
+			final Widget child = widget.getChild(childIndex);
+			return child != null ? child.getBounds() : null;
+		}
+		return widget.getBounds();
+	}
+}
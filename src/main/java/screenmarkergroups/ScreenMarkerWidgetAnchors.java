@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.runelite.api.Client;
+
+/**
+ * Keeps widget-anchored markers on top of their widgets. The last known bounds
+ * of every anchor are cached, and they are only looked up again after the
+ * widget tree or canvas changed or a new render snapshot was published. Markers
+ * are only moved when their anchor's bounds actually changed. All methods are
+ * called on the client thread.
+ */
+class ScreenMarkerWidgetAnchors {
+	private final Map<ScreenMarkerWidgetAnchor, Rectangle> anchorBounds = new HashMap<>();
+	private int snapshotVersion = -1;
+	private boolean dirty = true;
+
+	/**
+	 * Forces the anchors to be looked up again on the next update.
+	 */
+	void invalidate() {
+		dirty = true;
+	}
+
+	/**
+	 * Forgets all cached bounds, e.g. when the plugin shuts down.
+	 */
+	void clear() {
+		anchorBounds.clear();
+		snapshotVersion = -1;
+		dirty = true;
+	}
+
+	/**
+	 * Moves the anchored markers of the snapshot whose widgets moved since the
+	 * last update. Does nothing unless something was invalidated or the snapshot
+	 * changed.
+	 *
+	 * @param client   The RuneLite client instance.
+	 * @param snapshot The current render snapshot.
+	 * @return True if any marker was moved.
+	 */
+	boolean update(Client client, ScreenMarkerRenderSnapshot snapshot) {
+		if (snapshot.getVersion() != snapshotVersion) {
+			// Markers may have been added, moved or re-anchored; place all of them again
+			snapshotVersion = snapshot.getVersion();
+			anchorBounds.clear();
+			dirty = true;
+		}
+		if (!dirty) {
+			return false;
+		}
+		dirty = false;
+
+		final List<ScreenMarkerRenderState> anchoredMarkers = snapshot.getAnchoredMarkers();
+		if (anchoredMarkers.isEmpty()) {
+			return false;
+		}
+
+		// Resolve every anchor once, however many markers share it
+		final Set<ScreenMarkerWidgetAnchor> resolved = new HashSet<>();
+		final Set<ScreenMarkerWidgetAnchor> moved = new HashSet<>();
+		for (ScreenMarkerRenderState state : anchoredMarkers) {
+			final ScreenMarkerWidgetAnchor anchor = state.getAnchor();
+			if (!resolved.add(anchor)) {
+				continue;
+			}
+			final Rectangle bounds = anchor.resolve(client);
+			// Markers keep their last placement while their widget is not loaded
+			if (bounds != null && !bounds.equals(anchorBounds.put(anchor, bounds))) {
+				moved.add(anchor);
+			}
+		}
+
+		if (moved.isEmpty()) {
+			return false;
+		}
+		for (ScreenMarkerRenderState state : anchoredMarkers) {
+			final ScreenMarkerWidgetAnchor anchor = state.getAnchor();
+			if (moved.contains(anchor)) {
+				final Rectangle bounds = anchorBounds.get(anchor);
+				final ScreenMarkerOverlay overlay = state.getOverlay();
+				overlay.setPreferredLocation(bounds.getLocation());
+				overlay.setPreferredSize(bounds.getSize());
+			}
+		}
+		return true;
+	}
+}
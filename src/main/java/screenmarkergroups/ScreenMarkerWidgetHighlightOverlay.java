@@ -31,9 +31,6 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import javax.inject.Inject;
-import net.runelite.api.Client;
-import net.runelite.api.MenuEntry;
-import net.runelite.api.widgets.Widget;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
@@ -45,18 +42,15 @@ import net.runelite.client.ui.overlay.OverlayPosition;
  */
 class ScreenMarkerWidgetHighlightOverlay extends Overlay {
 	private final ScreenMarkerGroupsPlugin plugin;
-	private final Client client;
 
 	/**
 	 * Injects dependencies and sets up the overlay properties.
 	 *
 	 * @param plugin The main plugin instance.
-	 * @param client The RuneLite client instance.
 	 */
 	@Inject
-	private ScreenMarkerWidgetHighlightOverlay(final ScreenMarkerGroupsPlugin plugin, final Client client) {
+	private ScreenMarkerWidgetHighlightOverlay(final ScreenMarkerGroupsPlugin plugin) {
 		this.plugin = plugin;
-		this.client = client;
 		setPosition(OverlayPosition.DYNAMIC);
 		setLayer(OverlayLayer.ABOVE_WIDGETS);
 		setPriority(PRIORITY_HIGH);
@@ -66,7 +60,8 @@ class ScreenMarkerWidgetHighlightOverlay extends Overlay {
 	/**
 	 * Renders the widget highlight overlay.
 	 * Only draws if the user is in creation mode but not actively drawing a marker.
-	 * Highlights the widget bounds corresponding to the last menu entry hovered.
+	 * The highlighted bounds are resolved by the plugin when the hovered menu entry
+	 * or the widget tree changes, so no lookups happen here.
 	 *
 	 * @param graphics Graphics2D context for drawing.
 	 * @return null, as this overlay doesn't have specific dimensions.
@@ -77,40 +72,11 @@ class ScreenMarkerWidgetHighlightOverlay extends Overlay {
 			return null;
 		}
 
-		final MenuEntry[] menuEntries = client.getMenuEntries();
-		if (client.isMenuOpen() || menuEntries.length == 0) {
-			plugin.setSelectedWidgetBounds(null);
-			return null;
-		}
-
-		final MenuEntry menuEntry = menuEntries[menuEntries.length - 1];
-		final int childIdx = menuEntry.getParam0();
-		final int widgetId = menuEntry.getParam1();
-
-		final Widget widget = client.getWidget(widgetId);
-		if (widget == null) {
-			plugin.setSelectedWidgetBounds(null);
-			return null;
+		final ScreenMarkerWidgetHighlightTracker.Selection selection = plugin.getSelectedWidget();
+		if (selection != null) {
+			drawHighlight(graphics, selection.getBounds());
 		}
 
-		Rectangle bounds = null;
-		if (childIdx > -1) {
-			final Widget child = widget.getChild(childIdx);
-			if (child != null) {
-				bounds = child.getBounds();
-			}
-		} else {
-			bounds = widget.getBounds();
-		}
-
-		if (bounds == null) {
-			plugin.setSelectedWidgetBounds(null);
-			return null;
-		}
-
-		drawHighlight(graphics, bounds);
-		plugin.setSelectedWidgetBounds(bounds);
-
 		return null;
 	}
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Rectangle;
+import lombok.Value;
+import net.runelite.api.Client;
+
+/**
+ * Tracks the widget targeted by the top menu entry while in creation mode.
+ * The top entry is recorded once per menu rebuild, after the menu has been
+ * sorted, and the widget bounds are only looked up again when that entry, the
+ * menu state or the widget tree changes. All methods are called on the client
+ * thread.
+ */
+class ScreenMarkerWidgetHighlightTracker {
+	private int menuParam0 = -1;
+	private int menuParam1 = -1;
+
+	private int resolvedParam0 = -1;
+	private int resolvedParam1 = -1;
+	private boolean resolvedMenuOpen;
+	private boolean dirty = true;
+
+	/**
+	 * Records the top entry of the rebuilt menu.
+	 *
+	 * @param param0 The entry's param0 (child index), or -1 if the menu is empty.
+	 * @param param1 The entry's param1 (widget id), or -1 if the menu is empty.
+	 */
+	void topEntryChanged(int param0, int param1) {
+		menuParam0 = param0;
+		menuParam1 = param1;
+	}
+
+	/**
+	 * Forces the bounds to be looked up again on the next update, e.g. after
+	 * widgets were loaded, closed or moved.
+	 */
+	void invalidate() {
+		dirty = true;
+	}
+
+	/**
+	 * Checks whether the tracked entry or menu state changed since the last
+	 * lookup.
+	 *
+	 * @param menuOpen Whether the right-click menu is currently open.
+	 * @return True if {@link #resolve(Client)} should be called.
+	 */
+	boolean isStale(boolean menuOpen) {
+		return dirty
+			|| menuOpen != resolvedMenuOpen
+			|| menuParam0 != resolvedParam0
+			|| menuParam1 != resolvedParam1;
+	}
+
+	/**
+	 * Looks up the widget targeted by the top menu entry.
+	 *
+	 * @param client The RuneLite client instance.
+	 * @return The selected widget, or null if there is no widget to highlight.
+	 */
+	Selection resolve(Client client) {
+		dirty = false;
+		resolvedMenuOpen = client.isMenuOpen();
+		resolvedParam0 = menuParam0;
+		resolvedParam1 = menuParam1;
+
+		// No widget to highlight while the menu is open or empty
+		if (resolvedMenuOpen || resolvedParam1 == -1) {
+			return null;
+		}
+
+		final ScreenMarkerWidgetAnchor anchor = new ScreenMarkerWidgetAnchor(resolvedParam1, resolvedParam0);
+		final Rectangle bounds = anchor.resolve(client);
+		return bounds != null ? new Selection(anchor, bounds) : null;
+	}
+
+	/**
+	 * A highlighted widget together with its bounds at the time it was resolved,
+	 * published as one object so readers never see a mismatched pair.
+	 */
+	@Value
+	static class Selection {
+		ScreenMarkerWidgetAnchor anchor;
+		Rectangle bounds;
+	}
+}
@@ -25,12 +25,16 @@
 package screenmarkergroups.ui;
 
 import screenmarkergroups.ScreenMarkerGroupsPlugin;
+import screenmarkergroups.ui.ScreenMarkerIcons.Key;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.FlowLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.swing.JLabel;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
@@ -44,9 +48,6 @@ import javax.swing.border.EmptyBorder;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
 // SwingUtil import removed as unused
-import net.runelite.client.util.ImageUtil;
-import javax.swing.ImageIcon;
-import java.awt.image.BufferedImage;
 
 /**
  * A panel that represents the header for a screen marker group.
@@ -54,19 +55,6 @@ import java.awt.image.BufferedImage;
  * configuration, and adding markers.
  */
 class GroupHeaderPanel extends JPanel {
-	private static final ImageIcon ADD_MARKER_ICON;
-	private static final ImageIcon ADD_MARKER_HOVER_ICON;
-	private static final ImageIcon CONFIGURE_ICON;
-	private static final ImageIcon CONFIGURE_HOVER_ICON;
-	private static final ImageIcon VISIBLE_ICON;
-	private static final ImageIcon VISIBLE_HOVER_ICON;
-	private static final ImageIcon INVISIBLE_ICON;
-	private static final ImageIcon INVISIBLE_HOVER_ICON;
-	private static final ImageIcon EXPANDED_ICON;
-	private static final ImageIcon EXPANDED_HOVER_ICON;
-	private static final ImageIcon COLLAPSED_ICON;
-	private static final ImageIcon COLLAPSED_HOVER_ICON;
-
 	private final JLabel nameLabel;
 	private final String groupName;
 	private boolean isVisible;
@@ -78,36 +66,6 @@ class GroupHeaderPanel extends JPanel {
 	private final JLabel addMarkerButton = new JLabel();
 	private final JPopupMenu contextMenu;
 
-	static {
-		final BufferedImage addIcon = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class, "add_icon.png");
-		ADD_MARKER_ICON = new ImageIcon(addIcon);
-		ADD_MARKER_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(addIcon, -100));
-
-		final BufferedImage configureIcon = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class,
-				"configure.png");
-		CONFIGURE_ICON = new ImageIcon(configureIcon);
-		CONFIGURE_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(configureIcon, -100));
-
-		final BufferedImage visibleIcon = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class,
-				"visible_icon.png");
-		VISIBLE_ICON = new ImageIcon(visibleIcon);
-		VISIBLE_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(visibleIcon, -100));
-
-		final BufferedImage invisibleIcon = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class,
-				"invisible_icon.png");
-		INVISIBLE_ICON = new ImageIcon(invisibleIcon);
-		INVISIBLE_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(invisibleIcon, -100));
-
-		final BufferedImage expandedIcon = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class, "expanded.png");
-		EXPANDED_ICON = new ImageIcon(expandedIcon);
-		EXPANDED_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(expandedIcon, -100));
-
-		final BufferedImage collapsedIcon = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class,
-				"collapsed.png");
-		COLLAPSED_ICON = new ImageIcon(collapsedIcon);
-		COLLAPSED_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(collapsedIcon, -100));
-	}
-
 	/**
 	 * Updates the enabled state of context menu items (Rename, Delete, Move Up,
 	 * Move Down) based on whether the group is a special group ("Unassigned",
@@ -162,6 +120,67 @@ class GroupHeaderPanel extends JPanel {
 			}
 		});
 
+		final JMenuItem regionsItem = new JMenuItem("Set Regions");
+		regionsItem.addActionListener(e -> {
+			final String current = plugin.getGroupRegions(groupName).stream()
+					.map(String::valueOf)
+					.collect(Collectors.joining(", "));
+			final int playerRegionId = plugin.getPlayerRegionId();
+			final String input = (String) JOptionPane.showInputDialog(
+					GroupHeaderPanel.this,
+					"Region ids to show group '" + groupName + "' in, separated by commas."
+							+ (playerRegionId != -1 ? "\nYou are in region " + playerRegionId + "." : "")
+							+ "\nLeave empty to show the group everywhere.",
+					"Set Regions",
+					JOptionPane.PLAIN_MESSAGE,
+					null,
+					null,
+					current);
+			if (input == null) {
+				return;
+			}
+
+			final List<Integer> regionIds = parseRegionIds(input);
+			if (regionIds == null) {
+				JOptionPane.showMessageDialog(
+						GroupHeaderPanel.this,
+						"Region ids must be whole numbers separated by commas.",
+						"Set Regions Error",
+						JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			plugin.setGroupRegions(groupName, regionIds);
+		});
+
+		final JMenuItem conditionItem = new JMenuItem("Set Condition");
+		conditionItem.addActionListener(e -> {
+			final String current = plugin.getGroupCondition(groupName);
+			final String input = (String) JOptionPane.showInputDialog(
+					GroupHeaderPanel.this,
+					"Condition to show group '" + groupName + "' under, e.g.\n"
+							+ "varbit(4070) = 1 && (item(995) || level(hitpoints) < 50)\n"
+							+ "Also available: equipped(id), combat, !, ||.\n"
+							+ "Leave empty to show the group unconditionally.",
+					"Set Condition",
+					JOptionPane.PLAIN_MESSAGE,
+					null,
+					null,
+					current != null ? current : "");
+			if (input == null) {
+				return;
+			}
+
+			try {
+				plugin.setGroupCondition(groupName, input);
+			} catch (IllegalArgumentException ex) {
+				JOptionPane.showMessageDialog(
+						GroupHeaderPanel.this,
+						"Invalid condition: " + ex.getMessage(),
+						"Set Condition Error",
+						JOptionPane.ERROR_MESSAGE);
+			}
+		});
+
 		final JMenuItem deleteItem = new JMenuItem("Delete Group");
 		deleteItem.addActionListener(e -> plugin.deleteGroup(groupName));
 
@@ -172,6 +191,8 @@ class GroupHeaderPanel extends JPanel {
 		moveDownItem.addActionListener(e -> plugin.moveGroupDown(groupName));
 
 		popupMenu.add(renameItem);
+		popupMenu.add(regionsItem);
+		popupMenu.add(conditionItem);
 		popupMenu.add(deleteItem);
 		popupMenu.addSeparator();
 		popupMenu.add(moveUpItem);
@@ -180,6 +201,28 @@ class GroupHeaderPanel extends JPanel {
 		return popupMenu;
 	}
 
+	/**
+	 * Parses a comma separated list of region ids.
+	 *
+	 * @param input The text entered by the user.
+	 * @return The region ids, or null if any of them is not a number.
+	 */
+	private static List<Integer> parseRegionIds(String input) {
+		final List<Integer> regionIds = new ArrayList<>();
+		for (String part : input.split(",")) {
+			final String trimmed = part.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			try {
+				regionIds.add(Integer.parseInt(trimmed));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+		return regionIds;
+	}
+
 	/**
 	 * Constructs a GroupHeaderPanel.
 	 *
@@ -229,7 +272,7 @@ class GroupHeaderPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent e) {
-				expansionLabel.setIcon(isExpanded ? EXPANDED_HOVER_ICON : COLLAPSED_HOVER_ICON);
+				expansionLabel.setIcon(ScreenMarkerIcons.hover(isExpanded ? Key.EXPANDED : Key.COLLAPSED));
 			}
 
 			@Override
@@ -238,7 +281,7 @@ class GroupHeaderPanel extends JPanel {
 			}
 		});
 
-		configureLabel.setIcon(CONFIGURE_ICON);
+		ScreenMarkerIcons.apply(configureLabel, Key.CONFIGURE);
 		configureLabel.setToolTipText("Configure group");
 		configureLabel.addMouseListener(new MouseAdapter() {
 			@Override
@@ -251,12 +294,12 @@ class GroupHeaderPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent e) {
-				configureLabel.setIcon(CONFIGURE_HOVER_ICON);
+				configureLabel.setIcon(ScreenMarkerIcons.hover(Key.CONFIGURE));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent e) {
-				configureLabel.setIcon(CONFIGURE_ICON);
+				ScreenMarkerIcons.apply(configureLabel, Key.CONFIGURE);
 			}
 		});
 
@@ -277,7 +320,7 @@ class GroupHeaderPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent e) {
-				visibilityLabel.setIcon(isVisible ? VISIBLE_HOVER_ICON : INVISIBLE_HOVER_ICON);
+				visibilityLabel.setIcon(ScreenMarkerIcons.hover(isVisible ? Key.VISIBLE : Key.INVISIBLE));
 			}
 
 			@Override
@@ -286,7 +329,7 @@ class GroupHeaderPanel extends JPanel {
 			}
 		});
 
-		addMarkerButton.setIcon(ADD_MARKER_ICON);
+		ScreenMarkerIcons.apply(addMarkerButton, Key.ADD_MARKER);
 		addMarkerButton.setToolTipText("Add new marker to this group");
 		addMarkerButton.addMouseListener(new MouseAdapter() {
 			@Override
@@ -298,12 +341,12 @@ class GroupHeaderPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent e) {
-				addMarkerButton.setIcon(ADD_MARKER_HOVER_ICON);
+				addMarkerButton.setIcon(ScreenMarkerIcons.hover(Key.ADD_MARKER));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent e) {
-				addMarkerButton.setIcon(ADD_MARKER_ICON);
+				ScreenMarkerIcons.apply(addMarkerButton, Key.ADD_MARKER);
 			}
 		});
 
@@ -340,32 +383,51 @@ class GroupHeaderPanel extends JPanel {
 		if (enabled) {
 			updateExpansionIcon();
 			expansionLabel.setToolTipText(isExpanded ? "Collapse group" : "Expand group");
-			configureLabel.setIcon(CONFIGURE_ICON);
+			ScreenMarkerIcons.apply(configureLabel, Key.CONFIGURE);
 			configureLabel.setToolTipText("Configure group");
 			updateVisibilityIcon();
 			visibilityLabel.setToolTipText(isVisible ? "Hide group markers" : "Show group markers");
-			addMarkerButton.setIcon(ADD_MARKER_ICON);
+			ScreenMarkerIcons.apply(addMarkerButton, Key.ADD_MARKER);
 			addMarkerButton.setToolTipText("Add new marker to this group");
 		} else {
-			expansionLabel.setIcon(isExpanded ? new ImageIcon(ImageUtil.alphaOffset(EXPANDED_ICON.getImage(), 0.5f))
-					: new ImageIcon(ImageUtil.alphaOffset(COLLAPSED_ICON.getImage(), 0.5f)));
+			// Disabled labels show the dimmed icons of the shared icon atlas
 			expansionLabel.setToolTipText(null);
-			configureLabel.setIcon(new ImageIcon(ImageUtil.alphaOffset(CONFIGURE_ICON.getImage(), 0.5f)));
 			configureLabel.setToolTipText(null);
-			visibilityLabel.setIcon(isVisible ? new ImageIcon(ImageUtil.alphaOffset(VISIBLE_ICON.getImage(), 0.5f))
-					: new ImageIcon(ImageUtil.alphaOffset(INVISIBLE_ICON.getImage(), 0.5f)));
 			visibilityLabel.setToolTipText(null);
-			addMarkerButton.setIcon(new ImageIcon(ImageUtil.alphaOffset(ADD_MARKER_ICON.getImage(), 0.5f)));
 			addMarkerButton.setToolTipText(null);
 		}
 	}
 
+	/**
+	 * Updates the visibility and expansion state shown by this header, e.g. when
+	 * the header is reused after the plugin state was reloaded.
+	 *
+	 * @param visible  The current visibility state of the group.
+	 * @param expanded The current expansion state of the group.
+	 */
+	void updateState(boolean visible, boolean expanded) {
+		if (visible == isVisible && expanded == isExpanded) {
+			return;
+		}
+		isVisible = visible;
+		isExpanded = expanded;
+		updateVisibilityIcon();
+		updateExpansionIcon();
+		// Disabled controls have no tooltips, they are restored once re-enabled
+		if (visibilityLabel.isEnabled()) {
+			visibilityLabel.setToolTipText(isVisible ? "Hide group markers" : "Show group markers");
+		}
+		if (expansionLabel.isEnabled()) {
+			expansionLabel.setToolTipText(isExpanded ? "Collapse group" : "Expand group");
+		}
+	}
+
 	/**
 	 * Updates the visibility icon (eye open/closed) based on the current
 	 * `isVisible` state.
 	 */
 	private void updateVisibilityIcon() {
-		visibilityLabel.setIcon(isVisible ? VISIBLE_ICON : INVISIBLE_ICON);
+		ScreenMarkerIcons.apply(visibilityLabel, isVisible ? Key.VISIBLE : Key.INVISIBLE);
 	}
 
 	/**
@@ -373,6 +435,6 @@ class GroupHeaderPanel extends JPanel {
 	 * `isExpanded` state.
 	 */
 	private void updateExpansionIcon() {
-		expansionLabel.setIcon(isExpanded ? EXPANDED_ICON : COLLAPSED_ICON);
+		ScreenMarkerIcons.apply(expansionLabel, isExpanded ? Key.EXPANDED : Key.COLLAPSED);
 	}
 }
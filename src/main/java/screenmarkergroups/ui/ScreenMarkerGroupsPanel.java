@@ -28,6 +28,7 @@ package screenmarkergroups.ui;
 
 import screenmarkergroups.ScreenMarkerOverlay;
 import screenmarkergroups.ScreenMarkerGroupsPlugin;
+import screenmarkergroups.ui.ScreenMarkerIcons.Key;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -36,11 +37,9 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.swing.BorderFactory;
-import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
@@ -55,12 +54,13 @@ import javax.swing.border.Border;
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.MatteBorder;
+import lombok.AccessLevel;
+import lombok.Getter;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.components.FlatTextField;
 import net.runelite.client.ui.components.colorpicker.RuneliteColorPicker;
 import net.runelite.client.util.ColorUtil;
-import net.runelite.client.util.ImageUtil;
 
 /**
  * Represents a panel within the main plugin sidebar, displaying controls
@@ -74,34 +74,9 @@ class ScreenMarkerGroupsPanel extends JPanel {
 			BorderFactory.createMatteBorder(0, 0, 1, 0, ColorScheme.DARK_GRAY_COLOR),
 			BorderFactory.createLineBorder(ColorScheme.DARKER_GRAY_COLOR));
 
-	private static final ImageIcon BORDER_COLOR_ICON;
-	private static final ImageIcon BORDER_COLOR_HOVER_ICON;
-	private static final ImageIcon NO_BORDER_COLOR_ICON;
-	private static final ImageIcon NO_BORDER_COLOR_HOVER_ICON;
-
-	private static final ImageIcon FILL_COLOR_ICON;
-	private static final ImageIcon FILL_COLOR_HOVER_ICON;
-	private static final ImageIcon NO_FILL_COLOR_ICON;
-	private static final ImageIcon NO_FILL_COLOR_HOVER_ICON;
-
-	private static final ImageIcon LABEL_ICON;
-	private static final ImageIcon LABEL_HOVER_ICON;
-	private static final ImageIcon NO_LABEL_ICON;
-	private static final ImageIcon NO_LABEL_HOVER_ICON;
-
-	private static final ImageIcon VISIBLE_ICON;
-	private static final ImageIcon VISIBLE_HOVER_ICON;
-	private static final ImageIcon INVISIBLE_ICON;
-	private static final ImageIcon INVISIBLE_HOVER_ICON;
-
-	private static final ImageIcon CONFIGURE_ICON;
-	private static final ImageIcon CONFIGURE_HOVER_ICON;
-
-	private static final ImageIcon DELETE_ICON;
-	private static final ImageIcon DELETE_HOVER_ICON;
-
 	private final ScreenMarkerGroupsPlugin plugin;
-	private final ScreenMarkerOverlay marker;
+	@Getter(AccessLevel.PACKAGE)
+	private ScreenMarkerOverlay marker;
 	private final JPopupMenu contextMenu;
 
 	private final JLabel borderColorIndicator = new JLabel();
@@ -121,52 +96,8 @@ class ScreenMarkerGroupsPanel extends JPanel {
 
 	private boolean visible;
 	private boolean showLabel;
-
-	static {
-		final BufferedImage borderImg = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class,
-				"border_color_icon.png");
-		final BufferedImage borderImgHover = ImageUtil.luminanceOffset(borderImg, -150);
-		BORDER_COLOR_ICON = new ImageIcon(borderImg);
-		BORDER_COLOR_HOVER_ICON = new ImageIcon(borderImgHover);
-
-		NO_BORDER_COLOR_ICON = new ImageIcon(borderImgHover);
-		NO_BORDER_COLOR_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(borderImgHover, -100));
-
-		final BufferedImage fillImg = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class,
-				"fill_color_icon.png");
-		final BufferedImage fillImgHover = ImageUtil.luminanceOffset(fillImg, -150);
-		FILL_COLOR_ICON = new ImageIcon(fillImg);
-		FILL_COLOR_HOVER_ICON = new ImageIcon(fillImgHover);
-
-		NO_FILL_COLOR_ICON = new ImageIcon(fillImgHover);
-		NO_FILL_COLOR_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(fillImgHover, -100));
-
-		final BufferedImage labelImg = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class, "label_icon.png");
-		final BufferedImage labelImgHover = ImageUtil.luminanceOffset(labelImg, -150);
-		LABEL_ICON = new ImageIcon(labelImg);
-		LABEL_HOVER_ICON = new ImageIcon(labelImgHover);
-
-		NO_LABEL_ICON = new ImageIcon(labelImgHover);
-		NO_LABEL_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(labelImgHover, -100));
-
-		final BufferedImage visibleImg = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class,
-				"visible_icon.png");
-		VISIBLE_ICON = new ImageIcon(visibleImg);
-		VISIBLE_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(visibleImg, -100));
-
-		final BufferedImage invisibleImg = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class,
-				"invisible_icon.png");
-		INVISIBLE_ICON = new ImageIcon(invisibleImg);
-		INVISIBLE_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(invisibleImg, -100));
-
-		final BufferedImage configureImg = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class, "configure.png");
-		CONFIGURE_ICON = new ImageIcon(configureImg);
-		CONFIGURE_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(configureImg, -100));
-
-		final BufferedImage deleteImg = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class, "delete_icon.png");
-		DELETE_ICON = new ImageIcon(deleteImg);
-		DELETE_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(deleteImg, -100));
-	}
+	// Set while bind() updates the controls, so the change is not saved back
+	private boolean binding;
 
 	/**
 	 * Constructs the panel for a specific screen marker.
@@ -303,14 +234,12 @@ class ScreenMarkerGroupsPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent mouseEvent) {
-				borderColorIndicator.setIcon(marker.getMarker().getBorderThickness() == 0 ? NO_BORDER_COLOR_HOVER_ICON
-						: BORDER_COLOR_HOVER_ICON);
+				borderColorIndicator.setIcon(ScreenMarkerIcons.hover(borderIcon()));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent mouseEvent) {
-				borderColorIndicator.setIcon(
-						marker.getMarker().getBorderThickness() == 0 ? NO_BORDER_COLOR_ICON : BORDER_COLOR_ICON);
+				ScreenMarkerIcons.apply(borderColorIndicator, borderIcon());
 			}
 		});
 
@@ -323,20 +252,22 @@ class ScreenMarkerGroupsPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent mouseEvent) {
-				fillColorIndicator.setIcon(marker.getMarker().getFill().getAlpha() == 0 ? NO_FILL_COLOR_HOVER_ICON
-						: FILL_COLOR_HOVER_ICON);
+				fillColorIndicator.setIcon(ScreenMarkerIcons.hover(fillIcon()));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent mouseEvent) {
-				fillColorIndicator
-						.setIcon(marker.getMarker().getFill().getAlpha() == 0 ? NO_FILL_COLOR_ICON : FILL_COLOR_ICON);
+				ScreenMarkerIcons.apply(fillColorIndicator, fillIcon());
 			}
 		});
 
 		thicknessSpinner.setValue(marker.getMarker().getBorderThickness());
 		thicknessSpinner.setPreferredSize(new Dimension(50, 20));
-		thicknessSpinner.addChangeListener(ce -> updateThickness(true));
+		thicknessSpinner.addChangeListener(ce -> {
+			if (!binding) {
+				updateThickness(true);
+			}
+		});
 		thicknessSpinner.setToolTipText("Border thickness");
 
 		labelIndicator.addMouseListener(new MouseAdapter() {
@@ -347,12 +278,12 @@ class ScreenMarkerGroupsPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent mouseEvent) {
-				labelIndicator.setIcon(showLabel ? LABEL_HOVER_ICON : NO_LABEL_HOVER_ICON);
+				labelIndicator.setIcon(ScreenMarkerIcons.hover(showLabel ? Key.LABEL : Key.NO_LABEL));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent mouseEvent) {
-				labelIndicator.setIcon(showLabel ? LABEL_ICON : NO_LABEL_ICON);
+				ScreenMarkerIcons.apply(labelIndicator, showLabel ? Key.LABEL : Key.NO_LABEL);
 			}
 		});
 
@@ -366,7 +297,7 @@ class ScreenMarkerGroupsPanel extends JPanel {
 
 		this.contextMenu = setupContextMenu();
 
-		configureLabel.setIcon(CONFIGURE_ICON);
+		ScreenMarkerIcons.apply(configureLabel, Key.CONFIGURE);
 		configureLabel.setToolTipText("Configure marker");
 		configureLabel.addMouseListener(new MouseAdapter() {
 			@Override
@@ -378,12 +309,12 @@ class ScreenMarkerGroupsPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent mouseEvent) {
-				configureLabel.setIcon(CONFIGURE_HOVER_ICON);
+				configureLabel.setIcon(ScreenMarkerIcons.hover(Key.CONFIGURE));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent mouseEvent) {
-				configureLabel.setIcon(CONFIGURE_ICON);
+				ScreenMarkerIcons.apply(configureLabel, Key.CONFIGURE);
 			}
 		});
 
@@ -397,7 +328,7 @@ class ScreenMarkerGroupsPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent mouseEvent) {
-				visibilityLabel.setIcon(visible ? VISIBLE_HOVER_ICON : INVISIBLE_HOVER_ICON);
+				visibilityLabel.setIcon(ScreenMarkerIcons.hover(visible ? Key.VISIBLE : Key.INVISIBLE));
 			}
 
 			@Override
@@ -406,7 +337,7 @@ class ScreenMarkerGroupsPanel extends JPanel {
 			}
 		});
 
-		deleteLabel.setIcon(DELETE_ICON);
+		ScreenMarkerIcons.apply(deleteLabel, Key.DELETE);
 		deleteLabel.setToolTipText("Delete screen marker");
 		deleteLabel.addMouseListener(new MouseAdapter() {
 			@Override
@@ -424,12 +355,12 @@ class ScreenMarkerGroupsPanel extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent mouseEvent) {
-				deleteLabel.setIcon(DELETE_HOVER_ICON);
+				deleteLabel.setIcon(ScreenMarkerIcons.hover(Key.DELETE));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent mouseEvent) {
-				deleteLabel.setIcon(DELETE_ICON);
+				ScreenMarkerIcons.apply(deleteLabel, Key.DELETE);
 			}
 		});
 
@@ -449,6 +380,35 @@ class ScreenMarkerGroupsPanel extends JPanel {
 		updateLabelling();
 	}
 
+	/**
+	 * Rebinds this panel to a different marker, so that the virtualized marker
+	 * list can recycle panels while scrolling instead of constructing new ones.
+	 * Any rename in progress is discarded.
+	 *
+	 * @param marker The screen marker overlay this panel should represent.
+	 */
+	void bind(ScreenMarkerOverlay marker) {
+		if (this.marker == marker) {
+			return;
+		}
+		this.marker = marker;
+		this.visible = marker.getMarker().isVisible();
+		this.showLabel = marker.getMarker().isLabelled();
+
+		nameInput.setEditable(false);
+		nameInput.setText(marker.getMarker().getName());
+		updateNameActions(false);
+
+		binding = true;
+		thicknessSpinner.setValue(marker.getMarker().getBorderThickness());
+		binding = false;
+
+		updateVisibility();
+		updateFill();
+		updateBorder();
+		updateLabelling();
+	}
+
 	/**
 	 * Temporarily shows the marker overlay if it's currently hidden.
 	 * Used for previewing during hover events.
@@ -460,6 +420,7 @@ class ScreenMarkerGroupsPanel extends JPanel {
 			return;
 		}
 		marker.getMarker().setVisible(on);
+		plugin.markerUpdated(marker);
 	}
 
 	/**
@@ -471,7 +432,8 @@ class ScreenMarkerGroupsPanel extends JPanel {
 	private void toggle(boolean on) {
 		visible = on;
 		marker.getMarker().setVisible(visible);
-		plugin.updateGroupsConfig();
+		plugin.markerUpdated(marker);
+		plugin.updateMarkerConfig(marker);
 		updateVisibility();
 	}
 
@@ -484,7 +446,8 @@ class ScreenMarkerGroupsPanel extends JPanel {
 	private void toggleLabelling(boolean on) {
 		showLabel = on;
 		marker.getMarker().setLabelled(showLabel);
-		plugin.updateGroupsConfig();
+		plugin.markerUpdated(marker);
+		plugin.updateMarkerConfig(marker);
 		updateLabelling();
 	}
 
@@ -494,7 +457,8 @@ class ScreenMarkerGroupsPanel extends JPanel {
 	 */
 	private void save() {
 		marker.getMarker().setName(nameInput.getText());
-		plugin.updateGroupsConfig();
+		plugin.markerUpdated(marker);
+		plugin.updateMarkerConfig(marker);
 		nameInput.setEditable(false);
 		updateNameActions(false);
 		requestFocusInWindow();
@@ -536,9 +500,10 @@ class ScreenMarkerGroupsPanel extends JPanel {
 	 */
 	private void updateThickness(boolean save) {
 		marker.getMarker().setBorderThickness((Integer) thicknessSpinner.getValue());
+		plugin.markerUpdated(marker);
 		updateBorder();
 		if (save) {
-			plugin.updateGroupsConfig();
+			plugin.updateMarkerConfig(marker);
 		}
 	}
 
@@ -547,7 +512,7 @@ class ScreenMarkerGroupsPanel extends JPanel {
 	 * visibility state.
 	 */
 	private void updateVisibility() {
-		visibilityLabel.setIcon(visible ? VISIBLE_ICON : INVISIBLE_ICON);
+		ScreenMarkerIcons.apply(visibilityLabel, visible ? Key.VISIBLE : Key.INVISIBLE);
 		visibilityLabel.setToolTipText(visible ? "Hide screen marker" : "Show screen marker");
 	}
 
@@ -556,7 +521,7 @@ class ScreenMarkerGroupsPanel extends JPanel {
 	 * display state.
 	 */
 	private void updateLabelling() {
-		labelIndicator.setIcon(showLabel ? LABEL_ICON : NO_LABEL_ICON);
+		ScreenMarkerIcons.apply(labelIndicator, showLabel ? Key.LABEL : Key.NO_LABEL);
 		labelIndicator.setToolTipText(showLabel ? "Hide label" : "Show label");
 	}
 
@@ -573,7 +538,7 @@ class ScreenMarkerGroupsPanel extends JPanel {
 			Color fullColor = new Color(color.getRed(), color.getGreen(), color.getBlue());
 			fillColorIndicator.setBorder(new MatteBorder(0, 0, 3, 0, fullColor));
 		}
-		fillColorIndicator.setIcon(isFullyTransparent ? NO_FILL_COLOR_ICON : FILL_COLOR_ICON);
+		ScreenMarkerIcons.apply(fillColorIndicator, fillIcon());
 	}
 
 	/**
@@ -587,8 +552,21 @@ class ScreenMarkerGroupsPanel extends JPanel {
 			Color color = marker.getMarker().getColor();
 			borderColorIndicator.setBorder(new MatteBorder(0, 0, 3, 0, color));
 		}
-		borderColorIndicator
-				.setIcon(marker.getMarker().getBorderThickness() == 0 ? NO_BORDER_COLOR_ICON : BORDER_COLOR_ICON);
+		ScreenMarkerIcons.apply(borderColorIndicator, borderIcon());
+	}
+
+	/**
+	 * @return The border color icon matching the marker's border thickness.
+	 */
+	private Key borderIcon() {
+		return marker.getMarker().getBorderThickness() == 0 ? Key.NO_BORDER_COLOR : Key.BORDER_COLOR;
+	}
+
+	/**
+	 * @return The fill color icon matching the marker's fill alpha.
+	 */
+	private Key fillIcon() {
+		return marker.getMarker().getFill().getAlpha() == 0 ? Key.NO_FILL_COLOR : Key.FILL_COLOR;
 	}
 
 	/**
@@ -597,18 +575,23 @@ class ScreenMarkerGroupsPanel extends JPanel {
 	 * Saves configuration when the color picker is closed.
 	 */
 	private void openFillColorPicker() {
-		final Color fillColor = marker.getMarker().getFill();
+		// The panel may be rebound to another marker while the picker is open
+		final ScreenMarkerOverlay target = marker;
+		final Color fillColor = target.getMarker().getFill();
 		RuneliteColorPicker colorPicker = plugin.getColorPickerManager().create(
 				this,
 				fillColor.getAlpha() == 0 ? ColorUtil.colorWithAlpha(fillColor, DEFAULT_FILL_OPACITY) : fillColor,
-				marker.getMarker().getName() + " Fill",
+				target.getMarker().getName() + " Fill",
 				false);
 		colorPicker.setLocationRelativeTo(this);
 		colorPicker.setOnColorChange(c -> {
-			marker.getMarker().setFill(c);
-			updateFill();
+			target.getMarker().setFill(c);
+			plugin.markerUpdated(target);
+			if (marker == target) {
+				updateFill();
+			}
 		});
-		colorPicker.setOnClose(c -> plugin.updateGroupsConfig());
+		colorPicker.setOnClose(c -> plugin.updateMarkerConfig(target));
 		colorPicker.setVisible(true);
 	}
 
@@ -618,17 +601,22 @@ class ScreenMarkerGroupsPanel extends JPanel {
 	 * Saves configuration when the color picker is closed.
 	 */
 	private void openBorderColorPicker() {
+		// The panel may be rebound to another marker while the picker is open
+		final ScreenMarkerOverlay target = marker;
 		RuneliteColorPicker colorPicker = plugin.getColorPickerManager().create(
 				this,
-				marker.getMarker().getColor(),
-				marker.getMarker().getName() + " Border",
+				target.getMarker().getColor(),
+				target.getMarker().getName() + " Border",
 				false);
 		colorPicker.setLocationRelativeTo(this);
 		colorPicker.setOnColorChange(c -> {
-			marker.getMarker().setColor(c);
-			updateBorder();
+			target.getMarker().setColor(c);
+			plugin.markerUpdated(target);
+			if (marker == target) {
+				updateBorder();
+			}
 		});
-		colorPicker.setOnClose(c -> plugin.updateGroupsConfig());
+		colorPicker.setOnClose(c -> plugin.updateMarkerConfig(target));
 		colorPicker.setVisible(true);
 	}
 
@@ -28,29 +28,37 @@ package screenmarkergroups.ui;
 
 import screenmarkergroups.ScreenMarkerOverlay;
 import screenmarkergroups.ScreenMarkerGroupsPlugin;
+import screenmarkergroups.ScreenMarkerStartupTimings;
+import screenmarkergroups.ui.ScreenMarkerIcons.Key;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
-import java.awt.Dimension;
+import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.swing.Box;
-import javax.swing.ImageIcon;
 import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.JProgressBar;
 import javax.swing.border.EmptyBorder;
 import lombok.Getter;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.PluginPanel;
 import net.runelite.client.ui.components.PluginErrorPanel;
-import net.runelite.client.util.ImageUtil;
 
 /**
  * The main plugin panel for the Screen Marker Groups plugin.
@@ -61,8 +69,6 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 	@Getter
 	private final Map<String, ScreenMarkerGroupsCreationPanel> creationPanelsMap = new HashMap<>();
 
-	private static final ImageIcon ADD_GROUP_ICON;
-	private static final ImageIcon ADD_GROUP_HOVER_ICON;
 	public static final Color DEFAULT_BORDER_COLOR = Color.GREEN;
 	public static final Color DEFAULT_FILL_COLOR = new Color(0, 255, 0, 0);
 	public static final int DEFAULT_BORDER_THICKNESS = 3;
@@ -71,19 +77,33 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 	public static final Color SELECTED_FILL_COLOR = DEFAULT_FILL_COLOR;
 	public static final int SELECTED_BORDER_THICKNESS = DEFAULT_BORDER_THICKNESS;
 
-	private final JLabel addGroupButton = new JLabel(ADD_GROUP_ICON);
+	private final JLabel addGroupButton = new JLabel(ScreenMarkerIcons.icon(Key.ADD_GROUP));
+	private final JLabel presetsButton = new JLabel(ScreenMarkerIcons.icon(Key.VISIBLE));
 	private final JLabel title = new JLabel();
+	private final JProgressBar importProgress = new JProgressBar();
 	private final PluginErrorPanel noMarkersPanel = new PluginErrorPanel();
-	private final JPanel markerView = new JPanel(new GridBagLayout());
+	private final GridBagLayout markerViewLayout = new GridBagLayout();
+	private final JPanel markerView = new JPanel(markerViewLayout);
+	private final Component markerViewGlue = Box.createVerticalGlue();
 
-	private final ScreenMarkerGroupsPlugin plugin;
+	// Row components kept across rebuilds, keyed by group name and marker id
+	private final Map<String, GroupHeaderPanel> headerPanelsMap = new HashMap<>();
+	private final Map<Long, ScreenMarkerGroupsPanel> markerPanelsMap = new HashMap<>();
+	private final ScreenMarkerGroupsVirtualList virtualList;
 
-	static {
-		final BufferedImage addIcon = ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class, "add_icon.png");
+	// Scratch state of rebuild(), reused to avoid allocating per rebuild
+	private final List<Component> rows = new ArrayList<>();
+	private final Set<Component> rowSet = new HashSet<>();
+	private final Map<Component, Integer> rowIndex = new HashMap<>();
+	private final GridBagConstraints rowConstraints = new GridBagConstraints();
 
-		ADD_GROUP_ICON = new ImageIcon(addIcon);
-		ADD_GROUP_HOVER_ICON = new ImageIcon(ImageUtil.alphaOffset(addIcon, 0.53f));
-	}
+	private static final Insets MARKER_ROW_INSETS = new Insets(0, 0, 5, 0);
+	private static final Insets ROW_INSETS = new Insets(0, 0, 0, 0);
+
+	// Set after an asynchronous startup until the panel is first opened
+	private boolean rebuildDeferred;
+
+	private final ScreenMarkerGroupsPlugin plugin;
 
 	/**
 	 * Constructs the main plugin panel.
@@ -92,6 +112,7 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 	 */
 	public ScreenMarkerGroupsPluginPanel(ScreenMarkerGroupsPlugin screenMarkerPlugin) {
 		this.plugin = screenMarkerPlugin;
+		this.virtualList = new ScreenMarkerGroupsVirtualList(plugin, this::headerPanel, creationPanelsMap::get);
 
 		setLayout(new BorderLayout());
 		setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -125,17 +146,45 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent mouseEvent) {
-				addGroupButton.setIcon(ADD_GROUP_HOVER_ICON);
+				addGroupButton.setIcon(ScreenMarkerIcons.hover(Key.ADD_GROUP));
+			}
+
+			@Override
+			public void mouseExited(MouseEvent mouseEvent) {
+				addGroupButton.setIcon(ScreenMarkerIcons.icon(Key.ADD_GROUP));
+			}
+		});
+
+		importProgress.setStringPainted(true);
+		importProgress.setForeground(ColorScheme.BRAND_ORANGE);
+		importProgress.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+		importProgress.setVisible(false);
+
+		presetsButton.setToolTipText("Visibility presets");
+		presetsButton.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent mouseEvent) {
+				createPresetsMenu().show(presetsButton, 0, presetsButton.getHeight());
+			}
+
+			@Override
+			public void mouseEntered(MouseEvent mouseEvent) {
+				presetsButton.setIcon(ScreenMarkerIcons.hover(Key.VISIBLE));
 			}
 
 			@Override
 			public void mouseExited(MouseEvent mouseEvent) {
-				addGroupButton.setIcon(ADD_GROUP_ICON);
+				presetsButton.setIcon(ScreenMarkerIcons.icon(Key.VISIBLE));
 			}
 		});
 
+		JPanel titleActions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 0));
+		titleActions.add(presetsButton);
+		titleActions.add(addGroupButton);
+
 		northPanel.add(title, BorderLayout.WEST);
-		northPanel.add(addGroupButton, BorderLayout.EAST);
+		northPanel.add(titleActions, BorderLayout.EAST);
+		northPanel.add(importProgress, BorderLayout.SOUTH);
 
 		JPanel centerPanel = new JPanel(new BorderLayout());
 		centerPanel.setBackground(ColorScheme.DARK_GRAY_COLOR);
@@ -148,8 +197,8 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 		constraints.gridx = 0;
 		constraints.gridy = 0;
 
-		noMarkersPanel.setContent("Screen Markers", "Highlight a region on your screen.");
 		noMarkersPanel.setVisible(false);
+		setLoading(false);
 
 		markerView.add(noMarkersPanel, constraints);
 		constraints.gridy++;
@@ -161,25 +210,27 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 	}
 
 	/**
-	 * Rebuilds the entire panel display based on the current groups and markers
-	 * stored in the plugin. Clears the existing view and reconstructs it with
-	 * group headers and marker panels according to their order, visibility, and
-	 * expansion state.
+	 * Brings the panel display up to date with the current groups and markers
+	 * stored in the plugin, according to their order, visibility, and expansion
+	 * state. Group headers, creation panels and marker panels are kept across
+	 * calls, keyed by group name and marker id, so only rows that were added,
+	 * removed or moved are touched. In virtualized mode the rows are handed to
+	 * the virtual list instead, which only creates components for rows in view.
+	 * Does nothing while the rebuild is deferred until the panel is opened.
 	 */
 	public void rebuild() {
-		GridBagConstraints constraints = new GridBagConstraints();
-		constraints.fill = GridBagConstraints.HORIZONTAL;
-		constraints.weightx = 1;
-		constraints.weighty = 0;
-		constraints.gridx = 0;
-		constraints.gridy = 0;
+		if (rebuildDeferred) {
+			return;
+		}
 
-		markerView.removeAll();
-		creationPanelsMap.clear();
+		final Map<String, List<ScreenMarkerOverlay>> markerGroups = plugin.getMarkerGroups();
+		final boolean virtualized = plugin.isVirtualizedMarkerList();
+		final List<ScreenMarkerGroupsVirtualList.Row> virtualRows = new ArrayList<>();
+		rows.clear();
 		int markerCount = 0;
 
 		for (String groupName : plugin.getGroupOrderList()) {
-			List<ScreenMarkerOverlay> markersInGroup = plugin.getMarkerGroups().get(groupName);
+			List<ScreenMarkerOverlay> markersInGroup = markerGroups.get(groupName);
 
 			if (markersInGroup == null) {
 				continue;
@@ -190,64 +241,203 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 				continue;
 			}
 
-			boolean initialVisibility = plugin.isGroupVisible(groupName);
-			boolean initialExpansion = plugin.isGroupExpanded(groupName);
-
-			GroupHeaderPanel headerPanel = new GroupHeaderPanel(
-					plugin,
-					groupName,
-					initialVisibility,
-					initialExpansion,
-					(isVisible) -> plugin.setGroupVisibility(groupName, isVisible),
-					(isExpanded) -> {
-						plugin.setGroupExpansion(groupName, isExpanded);
-						rebuild();
-					});
-			markerView.add(headerPanel, constraints);
-			constraints.gridy++;
-
-			ScreenMarkerGroupsCreationPanel currentCreationPanel = new ScreenMarkerGroupsCreationPanel(plugin);
-			currentCreationPanel.setVisible(false);
-			creationPanelsMap.put(groupName, currentCreationPanel);
-			markerView.add(currentCreationPanel, constraints);
-			constraints.gridy++;
-
-			if (initialExpansion) {
-				for (int i = 0; i < markersInGroup.size(); i++) {
-					final ScreenMarkerOverlay marker = markersInGroup.get(i);
-					markerView.add(new ScreenMarkerGroupsPanel(plugin, marker), constraints);
-					constraints.gridy++;
-					markerCount++;
-
-					if (i < markersInGroup.size() - 1) {
-						markerView.add(Box.createRigidArea(new Dimension(0, 5)), constraints);
-						constraints.gridy++;
-					}
-				}
+			final boolean expanded = plugin.isGroupExpanded(groupName);
+			final GroupHeaderPanel existingHeader = headerPanelsMap.get(groupName);
+			if (existingHeader != null) {
+				existingHeader.updateState(plugin.isGroupVisible(groupName), expanded);
+			}
 
-				if (!markersInGroup.isEmpty()) {
-					markerView.add(Box.createRigidArea(new Dimension(0, 5)), constraints);
-					constraints.gridy++;
+			final ScreenMarkerGroupsCreationPanel creationPanel = creationPanelsMap.computeIfAbsent(groupName, k -> {
+				ScreenMarkerGroupsCreationPanel panel = new ScreenMarkerGroupsCreationPanel(plugin);
+				panel.setVisible(false);
+				return panel;
+			});
+
+			if (virtualized) {
+				virtualRows.add(new ScreenMarkerGroupsVirtualList.Row(
+						ScreenMarkerGroupsVirtualList.RowKind.HEADER, groupName, null));
+				virtualRows.add(new ScreenMarkerGroupsVirtualList.Row(
+						ScreenMarkerGroupsVirtualList.RowKind.CREATION, groupName, null));
+				if (expanded) {
+					for (ScreenMarkerOverlay marker : markersInGroup) {
+						virtualRows.add(new ScreenMarkerGroupsVirtualList.Row(
+								ScreenMarkerGroupsVirtualList.RowKind.MARKER, groupName, marker));
+					}
 				}
 			} else {
-				markerCount += markersInGroup.size();
+				rows.add(headerPanel(groupName));
+				rows.add(creationPanel);
+				if (expanded) {
+					for (ScreenMarkerOverlay marker : markersInGroup) {
+						rows.add(markerPanel(marker));
+					}
+				}
 			}
+			markerCount += markersInGroup.size();
 		}
 
-		constraints.weighty = 1;
-		markerView.add(Box.createVerticalGlue(), constraints);
-		constraints.gridy++;
-		constraints.weighty = 0;
+		// Forget rows of groups and markers that no longer exist
+		headerPanelsMap.keySet().retainAll(markerGroups.keySet());
+		creationPanelsMap.keySet().retainAll(markerGroups.keySet());
+		markerPanelsMap.values().removeIf(markerPanel -> plugin.findGroupForMarker(markerPanel.getMarker()) == null);
 
-		boolean empty = markerCount == 0;
-		noMarkersPanel.setVisible(empty);
-		markerView.add(noMarkersPanel, constraints);
-		constraints.gridy++;
+		if (virtualized) {
+			// Marker panels of the regular list are not used by the virtual list
+			markerPanelsMap.clear();
+			virtualList.setRows(virtualRows);
+			rows.add(virtualList);
+		} else {
+			virtualList.clearRows();
+		}
+		rows.add(markerViewGlue);
+		rows.add(noMarkersPanel);
+		noMarkersPanel.setVisible(markerCount == 0);
+		reconcileRows();
 
 		repaint();
 		revalidate();
 	}
 
+	/**
+	 * Updates the visibility and expansion icons of every group header, after
+	 * group states changed without the rows changing.
+	 */
+	public void updateGroupStates() {
+		headerPanelsMap.forEach((groupName, header) -> header.updateState(
+				plugin.isGroupVisible(groupName), plugin.isGroupExpanded(groupName)));
+	}
+
+	/**
+	 * Scrolls the marker list to a marker's row. The marker's group must be
+	 * expanded and the panel rebuilt since.
+	 *
+	 * @param marker The overlay of the marker.
+	 */
+	public void scrollToMarker(ScreenMarkerOverlay marker) {
+		// Lay out a rebuild still pending, so the rows have their final positions
+		validate();
+		if (plugin.isVirtualizedMarkerList()) {
+			virtualList.scrollToMarker(marker);
+			return;
+		}
+
+		final ScreenMarkerGroupsPanel markerPanel = markerPanelsMap.get(marker.getMarker().getId());
+		if (markerPanel != null && markerPanel.getMarker() == marker) {
+			markerPanel.scrollRectToVisible(new Rectangle(markerPanel.getSize()));
+		}
+	}
+
+	/**
+	 * Creates the menu for applying and saving visibility presets, with one
+	 * submenu per preset slot.
+	 *
+	 * @return The popup menu.
+	 */
+	private JPopupMenu createPresetsMenu() {
+		final JPopupMenu menu = new JPopupMenu();
+		for (int slot = 0; slot < ScreenMarkerGroupsPlugin.VISIBILITY_PRESET_COUNT; slot++) {
+			final int presetSlot = slot;
+			final JMenu presetMenu = new JMenu(plugin.getVisibilityPresetName(slot));
+
+			final JMenuItem applyItem = new JMenuItem("Apply");
+			applyItem.setEnabled(plugin.hasVisibilityPreset(slot));
+			applyItem.addActionListener(e -> plugin.applyVisibilityPreset(presetSlot));
+
+			final JMenuItem saveItem = new JMenuItem("Save current visibility");
+			saveItem.addActionListener(e -> plugin.saveVisibilityPreset(presetSlot));
+
+			presetMenu.add(applyItem);
+			presetMenu.add(saveItem);
+			menu.add(presetMenu);
+		}
+		return menu;
+	}
+
+	/**
+	 * Returns the header of a group, creating it on first use.
+	 *
+	 * @param groupName The name of the group.
+	 * @return The header panel of the group.
+	 */
+	private GroupHeaderPanel headerPanel(String groupName) {
+		return headerPanelsMap.computeIfAbsent(groupName, k -> new GroupHeaderPanel(
+				plugin,
+				groupName,
+				plugin.isGroupVisible(groupName),
+				plugin.isGroupExpanded(groupName),
+				(isVisible) -> plugin.setGroupVisibility(groupName, isVisible),
+				(isExpanded) -> {
+					plugin.setGroupExpansion(groupName, isExpanded);
+					rebuild();
+				}));
+	}
+
+	/**
+	 * Returns the panel of a marker in the regular list, creating it on first
+	 * use.
+	 *
+	 * @param marker The overlay of the marker.
+	 * @return The marker panel.
+	 */
+	private ScreenMarkerGroupsPanel markerPanel(ScreenMarkerOverlay marker) {
+		final long markerId = marker.getMarker().getId();
+		ScreenMarkerGroupsPanel markerPanel = markerPanelsMap.get(markerId);
+		// A reload replaces the overlays, so the id alone is not enough
+		if (markerPanel == null || markerPanel.getMarker() != marker) {
+			markerPanel = new ScreenMarkerGroupsPanel(plugin, marker);
+			markerPanelsMap.put(markerId, markerPanel);
+		}
+		return markerPanel;
+	}
+
+	/**
+	 * Makes the components of the marker view match {@link #rows}: removes
+	 * components no longer listed, adds new ones, and moves existing ones that
+	 * changed position. Each component's grid row equals its index.
+	 */
+	private void reconcileRows() {
+		rowSet.clear();
+		rowSet.addAll(rows);
+		for (int i = markerView.getComponentCount() - 1; i >= 0; i--) {
+			final Component component = markerView.getComponent(i);
+			if (!rowSet.contains(component)) {
+				markerView.remove(i);
+				rowIndex.remove(component);
+			}
+		}
+
+		for (int row = 0; row < rows.size(); row++) {
+			final Component component = rows.get(row);
+			if (component.getParent() != markerView) {
+				markerView.add(component, rowConstraints(component, row), row);
+			} else {
+				if (markerView.getComponent(row) != component) {
+					markerView.setComponentZOrder(component, row);
+				}
+				final Integer previousRow = rowIndex.get(component);
+				if (previousRow == null || previousRow != row) {
+					markerViewLayout.setConstraints(component, rowConstraints(component, row));
+				}
+			}
+			rowIndex.put(component, row);
+		}
+	}
+
+	/**
+	 * @return The layout constraints of a row component. The returned instance is
+	 *         reused and only valid until the next call.
+	 */
+	private GridBagConstraints rowConstraints(Component component, int row) {
+		rowConstraints.fill = GridBagConstraints.HORIZONTAL;
+		rowConstraints.weightx = 1;
+		rowConstraints.weighty = component == markerViewGlue ? 1 : 0;
+		rowConstraints.gridx = 0;
+		rowConstraints.gridy = row;
+		// Marker panels are spaced apart and from the following group
+		rowConstraints.insets = component instanceof ScreenMarkerGroupsPanel ? MARKER_ROW_INSETS : ROW_INSETS;
+		return rowConstraints;
+	}
+
 	/**
 	 * Sets the panel state for marker creation mode. Hides/shows the appropriate
 	 * creation panel for the target group and disables controls on other panels.
@@ -274,6 +464,7 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 		}
 
 		addGroupButton.setVisible(!on);
+		presetsButton.setVisible(!on);
 
 		for (Component comp : markerView.getComponents()) {
 			if (comp instanceof ScreenMarkerGroupsPanel) {
@@ -282,5 +473,73 @@ public class ScreenMarkerGroupsPluginPanel extends PluginPanel {
 				((GroupHeaderPanel) comp).setControlsEnabled(!on);
 			}
 		}
+		virtualList.setControlsEnabled(!on);
+		// The shown creation panel changes the height of its row
+		virtualList.refresh();
+	}
+
+	/**
+	 * Shows the progress of a running marker import below the title.
+	 *
+	 * @param processed The number of markers processed so far.
+	 * @param total     The total number of markers, or 0 while it is not known yet.
+	 */
+	public void setImportProgress(int processed, int total) {
+		importProgress.setIndeterminate(total <= 0);
+		importProgress.setMaximum(Math.max(total, 1));
+		importProgress.setValue(processed);
+		importProgress.setString(total <= 0 ? "Importing markers..." : "Importing " + processed + " / " + total);
+		importProgress.setVisible(true);
+	}
+
+	/**
+	 * Hides the import progress once an import has finished.
+	 */
+	public void clearImportProgress() {
+		importProgress.setVisible(false);
+	}
+
+	/**
+	 * Shows that markers are still being loaded instead of the empty panel
+	 * message, and hides the controls for adding groups meanwhile.
+	 *
+	 * @param loading True while markers are being loaded.
+	 */
+	public void setLoading(boolean loading) {
+		if (loading) {
+			noMarkersPanel.setContent("Screen Markers", "Loading markers...");
+		} else {
+			noMarkersPanel.setContent("Screen Markers", "Highlight a region on your screen.");
+		}
+		addGroupButton.setVisible(!loading);
+		presetsButton.setVisible(!loading);
+	}
+
+	/**
+	 * Defers building the panel until it is first opened, so that startup does
+	 * not create the rows of every marker.
+	 */
+	public void deferRebuild() {
+		rebuildDeferred = true;
+	}
+
+	@Override
+	public void onActivate() {
+		if (rebuildDeferred) {
+			rebuildDeferred = false;
+			final long start = System.nanoTime();
+			rebuild();
+			plugin.recordStartupStage(ScreenMarkerStartupTimings.Stage.PANEL, start);
+		}
+	}
+
+	/**
+	 * Saves pending edits when the panel is closed. Switching profiles from the
+	 * profile panel closes this one, so the edits are saved to the profile they
+	 * were made in right away.
+	 */
+	@Override
+	public void onDeactivate() {
+		plugin.flushPendingSaves();
 	}
 }
@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups.ui;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
+import lombok.Value;
+import screenmarkergroups.ScreenMarkerGroupsPlugin;
+import screenmarkergroups.ScreenMarkerOverlay;
+
+/**
+ * A list of group headers, creation panels and markers that only contains
+ * components for the rows inside the scroll viewport. Marker panels are
+ * recycled and rebound as rows scroll in and out of view, so the number of
+ * components does not depend on the number of markers. The header of the group
+ * at the top of the viewport sticks to the top until the next group pushes it
+ * out.
+ */
+class ScreenMarkerGroupsVirtualList extends JPanel {
+	/**
+	 * Space below every marker row, matching the spacing of the regular list.
+	 */
+	private static final int MARKER_SPACING = 5;
+
+	enum RowKind {
+		HEADER,
+		CREATION,
+		MARKER
+	}
+
+	/**
+	 * A row of the list; only rows in view have a component.
+	 */
+	@Value
+	static class Row {
+		RowKind kind;
+		String groupName;
+		ScreenMarkerOverlay marker;
+	}
+
+	private final ScreenMarkerGroupsPlugin plugin;
+	private final Function<String, GroupHeaderPanel> headerPanels;
+	private final Function<String, ScreenMarkerGroupsCreationPanel> creationPanels;
+
+	private List<Row> rows = Collections.emptyList();
+	// Top of each row, plus the total height as the last element
+	private int[] rowTops = new int[1];
+	// Row index of the header of the group each row belongs to
+	private int[] headerRows = new int[0];
+	// For header rows, the row index of the next group's header or the row count
+	private int[] groupEnds = new int[0];
+
+	private int headerHeight;
+	private int markerHeight;
+
+	private final Map<ScreenMarkerOverlay, ScreenMarkerGroupsPanel> boundPanels = new IdentityHashMap<>();
+	private final Deque<ScreenMarkerGroupsPanel> freePanels = new ArrayDeque<>();
+	private final Set<ScreenMarkerOverlay> visibleMarkers = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<Component> visibleComponents = new HashSet<>();
+	private boolean controlsEnabled = true;
+
+	private JViewport viewport;
+	private final ChangeListener viewportListener = e -> {
+		layoutVisibleRows();
+		repaint();
+	};
+
+	/**
+	 * @param plugin         The main plugin instance.
+	 * @param headerPanels   Returns the (possibly new) header of a group.
+	 * @param creationPanels Returns the creation panel of a group.
+	 */
+	ScreenMarkerGroupsVirtualList(ScreenMarkerGroupsPlugin plugin, Function<String, GroupHeaderPanel> headerPanels,
+			Function<String, ScreenMarkerGroupsCreationPanel> creationPanels) {
+		this.plugin = plugin;
+		this.headerPanels = headerPanels;
+		this.creationPanels = creationPanels;
+		setLayout(null);
+		setOpaque(false);
+	}
+
+	/**
+	 * Replaces the rows of the list.
+	 *
+	 * @param rows The rows to display, in order.
+	 */
+	void setRows(List<Row> rows) {
+		this.rows = rows;
+		refresh();
+	}
+
+	/**
+	 * Removes all rows and releases the recycled marker panels.
+	 */
+	void clearRows() {
+		rows = Collections.emptyList();
+		boundPanels.clear();
+		freePanels.clear();
+		removeAll();
+		refresh();
+	}
+
+	/**
+	 * Recomputes the row positions, e.g. after a creation panel was shown or
+	 * hidden, and lays out the rows in view.
+	 */
+	void refresh() {
+		computeRowTops();
+		revalidate();
+		layoutVisibleRows();
+		repaint();
+	}
+
+	/**
+	 * Enables or disables the controls of all rows, including rows scrolled into
+	 * view later.
+	 *
+	 * @param enabled True to enable controls, false to disable.
+	 */
+	void setControlsEnabled(boolean enabled) {
+		controlsEnabled = enabled;
+		boundPanels.values().forEach(panel -> panel.setControlsEnabled(enabled));
+		freePanels.forEach(panel -> panel.setControlsEnabled(enabled));
+		for (Component component : getComponents()) {
+			if (component instanceof GroupHeaderPanel) {
+				((GroupHeaderPanel) component).setControlsEnabled(enabled);
+			}
+		}
+	}
+
+	/**
+	 * Scrolls the viewport so the row of a marker is in view, below the sticky
+	 * group header.
+	 *
+	 * @param marker The overlay of the marker.
+	 */
+	void scrollToMarker(ScreenMarkerOverlay marker) {
+		for (int i = 0; i < rows.size(); i++) {
+			final Row row = rows.get(i);
+			if (row.getKind() == RowKind.MARKER && row.getMarker() == marker) {
+				final int top = Math.max(0, rowTops[i] - headerHeight);
+				scrollRectToVisible(new Rectangle(0, top, getWidth(), rowTops[i + 1] - top));
+				return;
+			}
+		}
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		return new Dimension(0, rowTops[rows.size()]);
+	}
+
+	@Override
+	public void doLayout() {
+		layoutVisibleRows();
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+		if (viewport != null) {
+			viewport.addChangeListener(viewportListener);
+		}
+	}
+
+	@Override
+	public void removeNotify() {
+		if (viewport != null) {
+			viewport.removeChangeListener(viewportListener);
+			viewport = null;
+		}
+		super.removeNotify();
+	}
+
+	private void computeRowTops() {
+		final int rowCount = rows.size();
+		if (rowTops.length < rowCount + 1) {
+			rowTops = new int[rowCount + 1];
+			headerRows = new int[rowCount];
+			groupEnds = new int[rowCount];
+		}
+
+		int top = 0;
+		int headerRow = 0;
+		for (int i = 0; i < rowCount; i++) {
+			final Row row = rows.get(i);
+			if (row.getKind() == RowKind.HEADER) {
+				if (i > 0) {
+					groupEnds[headerRow] = i;
+				}
+				headerRow = i;
+			}
+			headerRows[i] = headerRow;
+			rowTops[i] = top;
+			top += rowHeight(row);
+		}
+		if (rowCount > 0) {
+			groupEnds[headerRow] = rowCount;
+		}
+		rowTops[rowCount] = top;
+	}
+
+	/**
+	 * @return The height of a row including the spacing below it. Headers and
+	 *         marker panels all have the same height, measured once.
+	 */
+	private int rowHeight(Row row) {
+		switch (row.getKind()) {
+			case HEADER:
+				if (headerHeight == 0) {
+					headerHeight = headerPanels.apply(row.getGroupName()).getPreferredSize().height;
+				}
+				return headerHeight;
+			case CREATION:
+				final ScreenMarkerGroupsCreationPanel creationPanel = creationPanels.apply(row.getGroupName());
+				return creationPanel != null && creationPanel.isVisible() ? creationPanel.getPreferredSize().height
+						: 0;
+			default:
+				if (markerHeight == 0) {
+					final ScreenMarkerGroupsPanel prototype = new ScreenMarkerGroupsPanel(plugin, row.getMarker());
+					markerHeight = prototype.getPreferredSize().height;
+					freePanels.push(prototype);
+				}
+				return markerHeight + MARKER_SPACING;
+		}
+	}
+
+	/**
+	 * @return The index of the row containing the given y coordinate.
+	 */
+	private int rowAt(int y) {
+		int low = 0;
+		int high = rows.size() - 1;
+		while (low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			if (rowTops[mid] <= y) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gives the rows in the viewport a component, recycling the marker panels of
+	 * rows that left it, and removes all other components.
+	 */
+	private void layoutVisibleRows() {
+		final Rectangle view = getVisibleRect();
+		final int width = getWidth();
+		visibleComponents.clear();
+		visibleMarkers.clear();
+
+		if (rows.isEmpty() || view.isEmpty()) {
+			releaseHiddenComponents();
+			return;
+		}
+
+		final int first = rowAt(view.y);
+		final int last = rowAt(view.y + view.height - 1);
+
+		// Release the panels of markers that scrolled out before binding new ones
+		for (int i = first; i <= last; i++) {
+			if (rows.get(i).getKind() == RowKind.MARKER) {
+				visibleMarkers.add(rows.get(i).getMarker());
+			}
+		}
+		boundPanels.entrySet().removeIf(entry -> {
+			if (visibleMarkers.contains(entry.getKey())) {
+				return false;
+			}
+			freePanels.push(entry.getValue());
+			return true;
+		});
+
+		for (int i = first; i <= last; i++) {
+			final Row row = rows.get(i);
+			final int height = rowTops[i + 1] - rowTops[i];
+			switch (row.getKind()) {
+				case HEADER:
+					show(headerPanels.apply(row.getGroupName()), 0, rowTops[i], width, height);
+					break;
+				case CREATION:
+					if (height > 0) {
+						show(creationPanels.apply(row.getGroupName()), 0, rowTops[i], width, height);
+					}
+					break;
+				default:
+					show(markerPanel(row.getMarker()), 0, rowTops[i], width, height - MARKER_SPACING);
+					break;
+			}
+		}
+
+		// Keep the header of the group at the top of the view pinned, pushed up by
+		// the header of the next group
+		final int stickyRow = headerRows[first];
+		if (rowTops[stickyRow] < view.y) {
+			final int y = Math.min(view.y, rowTops[groupEnds[stickyRow]] - headerHeight);
+			final GroupHeaderPanel header = headerPanels.apply(rows.get(stickyRow).getGroupName());
+			show(header, 0, y, width, headerHeight);
+			setComponentZOrder(header, 0);
+		}
+
+		releaseHiddenComponents();
+	}
+
+	/**
+	 * @return The panel bound to the marker, rebinding a free panel if needed.
+	 */
+	private ScreenMarkerGroupsPanel markerPanel(ScreenMarkerOverlay marker) {
+		ScreenMarkerGroupsPanel panel = boundPanels.get(marker);
+		if (panel == null) {
+			panel = freePanels.poll();
+			if (panel == null) {
+				panel = new ScreenMarkerGroupsPanel(plugin, marker);
+			} else {
+				panel.bind(marker);
+			}
+			panel.setControlsEnabled(controlsEnabled);
+			boundPanels.put(marker, panel);
+		}
+		return panel;
+	}
+
+	private void show(Component component, int x, int y, int width, int height) {
+		if (component.getParent() != this) {
+			add(component);
+			if (component instanceof GroupHeaderPanel) {
+				((GroupHeaderPanel) component).setControlsEnabled(controlsEnabled);
+			}
+		}
+		component.setBounds(x, y, width, height);
+		component.validate();
+		visibleComponents.add(component);
+	}
+
+	private void releaseHiddenComponents() {
+		for (int i = getComponentCount() - 1; i >= 0; i--) {
+			if (!visibleComponents.contains(getComponent(i))) {
+				remove(i);
+			}
+		}
+	}
+}
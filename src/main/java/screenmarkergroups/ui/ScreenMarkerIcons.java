@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups.ui;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.ImageUtil;
+import screenmarkergroups.ScreenMarkerGroupsPlugin;
+
+/**
+ * Shared atlas of the icons used by the sidebar panels. Every icon comes in a
+ * normal, hover and disabled variant, built once on first use and shared by
+ * all panels, so toggling creation mode or hovering allocates no images.
+ * The memory held by the atlas is logged at debug level as it grows.
+ */
+@Slf4j
+final class ScreenMarkerIcons {
+	/**
+	 * The icons of the atlas, defined by their resource image and the effects
+	 * producing the normal and hover variants from it.
+	 */
+	enum Key {
+		ADD_GROUP("add_icon.png", UnaryOperator.identity(), image -> ImageUtil.alphaOffset(image, 0.53f)),
+		ADD_MARKER("add_icon.png", UnaryOperator.identity(), ScreenMarkerIcons::fade),
+		CONFIGURE("configure.png", UnaryOperator.identity(), ScreenMarkerIcons::fade),
+		VISIBLE("visible_icon.png", UnaryOperator.identity(), ScreenMarkerIcons::fade),
+		INVISIBLE("invisible_icon.png", UnaryOperator.identity(), ScreenMarkerIcons::fade),
+		EXPANDED("expanded.png", UnaryOperator.identity(), ScreenMarkerIcons::fade),
+		COLLAPSED("collapsed.png", UnaryOperator.identity(), ScreenMarkerIcons::fade),
+		DELETE("delete_icon.png", UnaryOperator.identity(), ScreenMarkerIcons::fade),
+		BORDER_COLOR("border_color_icon.png", UnaryOperator.identity(), ScreenMarkerIcons::darken),
+		NO_BORDER_COLOR("border_color_icon.png", ScreenMarkerIcons::darken, ScreenMarkerIcons::fade),
+		FILL_COLOR("fill_color_icon.png", UnaryOperator.identity(), ScreenMarkerIcons::darken),
+		NO_FILL_COLOR("fill_color_icon.png", ScreenMarkerIcons::darken, ScreenMarkerIcons::fade),
+		LABEL("label_icon.png", UnaryOperator.identity(), ScreenMarkerIcons::darken),
+		NO_LABEL("label_icon.png", ScreenMarkerIcons::darken, ScreenMarkerIcons::fade);
+
+		private final String resource;
+		private final UnaryOperator<BufferedImage> normal;
+		private final UnaryOperator<BufferedImage> hover;
+
+		Key(String resource, UnaryOperator<BufferedImage> normal, UnaryOperator<BufferedImage> hover) {
+			this.resource = resource;
+			this.normal = normal;
+			this.hover = hover;
+		}
+	}
+
+	/**
+	 * The variants of one icon.
+	 */
+	@Value
+	static class IconSet {
+		ImageIcon icon;
+		ImageIcon hover;
+		ImageIcon disabled;
+	}
+
+	private static final Map<Key, IconSet> ICONS = new EnumMap<>(Key.class);
+	private static final Map<String, BufferedImage> RESOURCES = new HashMap<>();
+
+	private ScreenMarkerIcons() {
+	}
+
+	/**
+	 * Returns the variants of an icon, building them on first use.
+	 *
+	 * @param key The icon.
+	 * @return The normal, hover and disabled variants of the icon.
+	 */
+	static synchronized IconSet get(Key key) {
+		IconSet icons = ICONS.get(key);
+		if (icons == null) {
+			final BufferedImage resource = RESOURCES.computeIfAbsent(key.resource,
+					name -> ImageUtil.loadImageResource(ScreenMarkerGroupsPlugin.class, name));
+			final BufferedImage normal = key.normal.apply(resource);
+			icons = new IconSet(new ImageIcon(normal), new ImageIcon(key.hover.apply(normal)),
+					new ImageIcon(ImageUtil.alphaOffset(normal, 0.5f)));
+			ICONS.put(key, icons);
+			if (log.isDebugEnabled()) {
+				log.debug("Icon atlas: built {}, {} of {} icons in {} bytes", key, ICONS.size(), Key.values().length,
+						getFootprintBytes());
+			}
+		}
+		return icons;
+	}
+
+	/**
+	 * @param key The icon.
+	 * @return The normal variant of the icon.
+	 */
+	static ImageIcon icon(Key key) {
+		return get(key).getIcon();
+	}
+
+	/**
+	 * @param key The icon.
+	 * @return The hover variant of the icon.
+	 */
+	static ImageIcon hover(Key key) {
+		return get(key).getHover();
+	}
+
+	/**
+	 * Shows an icon on a label, along with the matching variant the label shows
+	 * while disabled, which Swing would otherwise generate per label.
+	 *
+	 * @param label The label to show the icon on.
+	 * @param key   The icon.
+	 */
+	static void apply(JLabel label, Key key) {
+		final IconSet icons = get(key);
+		label.setIcon(icons.getIcon());
+		label.setDisabledIcon(icons.getDisabled());
+	}
+
+	/**
+	 * Estimates the memory held by the images of the atlas, counting images
+	 * shared between icons once.
+	 *
+	 * @return The approximate size of all built images, in bytes.
+	 */
+	static synchronized long getFootprintBytes() {
+		final Set<BufferedImage> images = Collections.newSetFromMap(new IdentityHashMap<>());
+		images.addAll(RESOURCES.values());
+		for (IconSet icons : ICONS.values()) {
+			images.add((BufferedImage) icons.getIcon().getImage());
+			images.add((BufferedImage) icons.getHover().getImage());
+			images.add((BufferedImage) icons.getDisabled().getImage());
+		}
+
+		long bytes = 0;
+		for (BufferedImage image : images) {
+			final DataBuffer buffer = image.getRaster().getDataBuffer();
+			bytes += (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType())
+					/ Byte.SIZE;
+		}
+		return bytes;
+	}
+
+	private static BufferedImage fade(BufferedImage image) {
+		return ImageUtil.alphaOffset(image, -100);
+	}
+
+	private static BufferedImage darken(BufferedImage image) {
+		return ImageUtil.luminanceOffset(image, -150);
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.runelite.api.Client;
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.Skill;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScreenMarkerConditionTest {
+	private Client client;
+
+	@Before
+	public void before() {
+		client = mock(Client.class);
+	}
+
+	@Test
+	public void testComparisons() {
+		when(client.getVarbitValue(10)).thenReturn(3);
+
+		assertTrue(test("varbit(10) = 3"));
+		assertTrue(test("varbit(10) == 3"));
+		assertFalse(test("varbit(10) != 3"));
+		assertTrue(test("varbit(10) < 4"));
+		assertFalse(test("varbit(10) < 3"));
+		assertTrue(test("varbit(10) <= 3"));
+		assertTrue(test("varbit(10) > 2"));
+		assertFalse(test("varbit(10) > 3"));
+		assertTrue(test("varbit(10) >= 3"));
+	}
+
+	@Test
+	public void testNegativeNumbers() {
+		when(client.getVarbitValue(5)).thenReturn(-1);
+
+		assertTrue(test("varbit(5) = -1"));
+		assertTrue(test("varbit(5) > -2"));
+		assertFalse(test("varbit(5) >= 0"));
+	}
+
+	@Test
+	public void testAndBindsTighterThanOr() {
+		when(client.getVarbitValue(1)).thenReturn(1);
+
+		// (1 || 2) && 3 would be false
+		assertTrue(test("varbit(1) = 1 || varbit(2) = 1 && varbit(3) = 1"));
+		assertFalse(test("(varbit(1) = 1 || varbit(2) = 1) && varbit(3) = 1"));
+	}
+
+	@Test
+	public void testNotBindsTighterThanAnd() {
+		when(client.getVarbitValue(2)).thenReturn(1);
+
+		// !(1 && 2) would be true
+		assertFalse(test("!varbit(1) = 1 && varbit(2) = 0"));
+		assertTrue(test("!(varbit(1) = 1 && varbit(2) = 0)"));
+		assertTrue(test("!!varbit(2) = 1"));
+	}
+
+	@Test
+	public void testSkillLevel() {
+		when(client.getBoostedSkillLevel(Skill.ATTACK)).thenReturn(60);
+
+		assertTrue(test("level(attack) >= 60"));
+		assertTrue(test("level(Attack) > 59"));
+		assertFalse(test("level(ATTACK) < 60"));
+	}
+
+	@Test
+	public void testItems() {
+		final ItemContainer inventory = mock(ItemContainer.class);
+		when(inventory.contains(995)).thenReturn(true);
+		when(client.getItemContainer(InventoryID.INVENTORY)).thenReturn(inventory);
+
+		assertTrue(test("item(995)"));
+		assertFalse(test("item(996)"));
+		// No equipment container
+		assertFalse(test("equipped(995)"));
+	}
+
+	@Test
+	public void testWhitespace() {
+		when(client.getVarbitValue(1)).thenReturn(1);
+
+		assertTrue(test("  varbit ( 1 )=1&&!combat  "));
+	}
+
+	@Test
+	public void testInputs() {
+		final List<String> inputs = new ArrayList<>();
+		ScreenMarkerCondition.compile("varbit(7) = 1 && level(magic) > 1 || item(995) || !equipped(4151) || combat")
+				.collectInputs((input, id) -> inputs.add(input + ":" + id));
+
+		assertEquals(List.of(
+				"VARBIT:7",
+				"SKILL:" + Skill.MAGIC.ordinal(),
+				"INVENTORY:0",
+				"EQUIPMENT:0",
+				"INTERACTING:0"), inputs);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmpty() {
+		ScreenMarkerCondition.compile("");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownCondition() {
+		ScreenMarkerCondition.compile("region(1234)");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownSkill() {
+		ScreenMarkerCondition.compile("level(fishingg) > 1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingComparison() {
+		ScreenMarkerCondition.compile("varbit(1) 2");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingNumber() {
+		ScreenMarkerCondition.compile("varbit(1) = -");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnclosedParenthesis() {
+		ScreenMarkerCondition.compile("(combat && item(1)");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTrailingText() {
+		ScreenMarkerCondition.compile("combat x");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTrailingParenthesis() {
+		ScreenMarkerCondition.compile("varbit(1) = 1)");
+	}
+
+	@Test
+	public void testNestingLimit() {
+		ScreenMarkerCondition.compile("!".repeat(32) + "combat");
+		ScreenMarkerCondition.compile("(".repeat(32) + "combat" + ")".repeat(32));
+		assertInvalid("!".repeat(33) + "combat");
+		assertInvalid("(".repeat(33) + "combat" + ")".repeat(33));
+	}
+
+	@Test
+	public void testDeepNestingDoesNotOverflow() {
+		assertInvalid("!".repeat(100_000) + "combat");
+		assertInvalid("(".repeat(100_000) + "combat" + ")".repeat(100_000));
+	}
+
+	@Test
+	public void testTermLimit() {
+		ScreenMarkerCondition.compile(String.join(" && ", Collections.nCopies(64, "combat")));
+		assertInvalid(String.join(" || ", Collections.nCopies(65, "combat")));
+	}
+
+	private boolean test(String source) {
+		return ScreenMarkerCondition.compile(source).test(client);
+	}
+
+	private static void assertInvalid(String source) {
+		try {
+			ScreenMarkerCondition.compile(source);
+		} catch (IllegalArgumentException e) {
+			return;
+		}
+		throw new AssertionError("Expected an invalid condition");
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.runelite.api.Skill;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ScreenMarkerConditionsTest {
+	@Test
+	public void testEmpty() {
+		assertSame(ScreenMarkerConditions.EMPTY, ScreenMarkerConditions.compile(Collections.emptyMap()));
+		assertTrue(ScreenMarkerConditions.EMPTY.getDependents(ScreenMarkerCondition.Input.VARBIT, 1).isEmpty());
+	}
+
+	@Test
+	public void testInvalidConditionsAreSkipped() {
+		final Map<String, String> sources = new HashMap<>();
+		sources.put("valid", "combat");
+		sources.put("invalid", "varbit(1) =");
+		sources.put("nested", "!".repeat(100_000) + "combat");
+
+		final ScreenMarkerConditions conditions = ScreenMarkerConditions.compile(sources);
+
+		assertEquals(Set.of("valid"), conditions.getGroupNames());
+		assertNotNull(conditions.get("valid"));
+		assertNull(conditions.get("invalid"));
+		assertNull(conditions.get("nested"));
+	}
+
+	@Test
+	public void testDependents() {
+		final Map<String, String> sources = new HashMap<>();
+		sources.put("a", "varbit(1) = 1 && varbit(2) = 1");
+		sources.put("b", "varbit(1) = 0 || combat");
+		sources.put("c", "level(magic) > 50 && item(995)");
+
+		final ScreenMarkerConditions conditions = ScreenMarkerConditions.compile(sources);
+
+		assertEquals(Set.of("a", "b"), Set.copyOf(conditions.getDependents(ScreenMarkerCondition.Input.VARBIT, 1)));
+		assertEquals(List.of("a"), conditions.getDependents(ScreenMarkerCondition.Input.VARBIT, 2));
+		assertEquals(List.of("b"), conditions.getDependents(ScreenMarkerCondition.Input.INTERACTING, 0));
+		assertEquals(List.of("c"), conditions.getDependents(ScreenMarkerCondition.Input.SKILL, Skill.MAGIC.ordinal()));
+		assertEquals(List.of("c"), conditions.getDependents(ScreenMarkerCondition.Input.INVENTORY, 0));
+		assertTrue(conditions.getDependents(ScreenMarkerCondition.Input.VARBIT, 3).isEmpty());
+		assertTrue(conditions.getDependents(ScreenMarkerCondition.Input.EQUIPMENT, 0).isEmpty());
+	}
+
+	@Test
+	public void testGroupListedOncePerInput() {
+		final ScreenMarkerConditions conditions = ScreenMarkerConditions.compile(
+				Collections.singletonMap("a", "varbit(1) = 1 || !varbit(1) = 2"));
+
+		assertEquals(List.of("a"), conditions.getDependents(ScreenMarkerCondition.Input.VARBIT, 1));
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ScreenMarkerIdRegistryTest {
+	@Test
+	public void testAllocate() {
+		final ScreenMarkerIdRegistry<String> ids = new ScreenMarkerIdRegistry<>();
+		assertEquals(1, ids.allocate());
+		assertEquals(2, ids.allocate());
+		assertEquals(100, ids.allocate(100));
+		assertEquals(101, ids.allocate(50));
+		assertEquals(102, ids.getNextId());
+	}
+
+	@Test
+	public void testRestoreNeverMovesBack() {
+		final ScreenMarkerIdRegistry<String> ids = new ScreenMarkerIdRegistry<>();
+		ids.restore(10);
+		ids.restore(5);
+		assertEquals(10, ids.allocate());
+	}
+
+	@Test
+	public void testPutMovesCounterPastId() {
+		final ScreenMarkerIdRegistry<String> ids = new ScreenMarkerIdRegistry<>();
+		ids.put(41, "group");
+		assertEquals(42, ids.allocate());
+		assertEquals("group", ids.get(41));
+
+		// Removed ids are not handed out again
+		ids.remove(41);
+		assertNull(ids.get(41));
+		assertEquals(43, ids.allocate());
+	}
+
+	@Test
+	public void testClear() {
+		final ScreenMarkerIdRegistry<String> ids = new ScreenMarkerIdRegistry<>();
+		for (long id = 1; id <= 100; id++) {
+			ids.put(id, "group");
+		}
+		assertEquals(100, ids.size());
+
+		ids.clear();
+		assertEquals(0, ids.size());
+		assertNull(ids.get(1));
+		assertEquals(1, ids.allocate());
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ScreenMarkerLongMapTest {
+	@Test
+	public void testPutGetRemove() {
+		final ScreenMarkerLongMap<String> map = new ScreenMarkerLongMap<>();
+		map.put(1, "a");
+		map.put(-1, "b");
+		map.put(Long.MAX_VALUE, "c");
+		map.put(1, "d");
+
+		assertEquals(3, map.size());
+		assertEquals("d", map.get(1));
+		assertEquals("b", map.get(-1));
+		assertEquals("c", map.get(Long.MAX_VALUE));
+		assertNull(map.get(2));
+
+		assertEquals("b", map.remove(-1));
+		assertNull(map.remove(-1));
+		assertNull(map.get(-1));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	public void testWrappedCluster() {
+		final ScreenMarkerLongMap<Long> map = new ScreenMarkerLongMap<>();
+		final int capacity = map.capacity();
+		// Keys starting in the last slot wrap around to the start of the table,
+		// pushing the keys starting in slot 0 to slots 3 and 4
+		final List<Long> last = keysWithHomeSlot(capacity - 1, capacity, 4);
+		final List<Long> first = keysWithHomeSlot(0, capacity, 2);
+		final List<Long> fifth = keysWithHomeSlot(5, capacity, 1);
+		for (List<Long> keys : List.of(last, first, fifth)) {
+			for (long key : keys) {
+				map.put(key, key);
+			}
+		}
+		assertEquals(capacity, map.capacity());
+		assertContainsExactly(map, last, first, fifth);
+
+		// Removing the head of the cluster shifts the wrapped entries back over the
+		// end of the table, but not the entry in its home slot right after them
+		map.remove(last.get(0));
+		assertContainsExactly(map, last.subList(1, 4), first, fifth);
+
+		map.remove(first.get(0));
+		assertContainsExactly(map, last.subList(1, 4), first.subList(1, 2), fifth);
+
+		map.remove(last.get(3));
+		map.put(last.get(0), last.get(0));
+		assertContainsExactly(map, last.subList(0, 3), first.subList(1, 2), fifth);
+	}
+
+	@Test
+	public void testResize() {
+		final ScreenMarkerLongMap<Long> map = new ScreenMarkerLongMap<>();
+		final int initialCapacity = map.capacity();
+		for (long key = 0; key < 1000; key++) {
+			map.put(key * 7919, key);
+		}
+		assertEquals(1000, map.size());
+		assertTrue(map.capacity() > initialCapacity);
+		assertTrue(map.size() * 4 <= map.capacity() * 3);
+		for (long key = 0; key < 1000; key++) {
+			assertEquals(Long.valueOf(key), map.get(key * 7919));
+		}
+
+		for (long key = 0; key < 1000; key += 2) {
+			map.remove(key * 7919);
+		}
+		assertEquals(500, map.size());
+		for (long key = 0; key < 1000; key++) {
+			assertEquals(key % 2 == 0 ? null : Long.valueOf(key), map.get(key * 7919));
+		}
+
+		map.clear();
+		assertEquals(0, map.size());
+		assertEquals(initialCapacity, map.capacity());
+		assertNull(map.get(7919));
+	}
+
+	@Test
+	public void testMatchesHashMap() {
+		// A small key range keeps the table dense, so clusters form and wrap around
+		final Random random = new Random(0);
+		final ScreenMarkerLongMap<Integer> map = new ScreenMarkerLongMap<>();
+		final Map<Long, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100_000; i++) {
+			final long key = random.nextInt(48);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				expected.put(key, i);
+				map.put(key, i);
+			}
+			assertEquals(expected.size(), map.size());
+			for (long k = 0; k < 48; k++) {
+				assertEquals(expected.get(k), map.get(k));
+			}
+		}
+	}
+
+	private static List<Long> keysWithHomeSlot(int slot, int capacity, int count) {
+		final List<Long> keys = new ArrayList<>();
+		for (long key = 1; keys.size() < count; key++) {
+			if (ScreenMarkerLongMap.homeSlot(key, capacity) == slot) {
+				keys.add(key);
+			}
+		}
+		return keys;
+	}
+
+	@SafeVarargs
+	private static void assertContainsExactly(ScreenMarkerLongMap<Long> map, List<Long>... keyLists) {
+		int size = 0;
+		for (List<Long> keys : keyLists) {
+			for (long key : keys) {
+				assertEquals(Long.valueOf(key), map.get(key));
+			}
+			size += keys.size();
+		}
+		assertEquals(size, map.size());
+	}
+}
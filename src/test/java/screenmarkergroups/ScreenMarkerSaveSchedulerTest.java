@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScreenMarkerSaveSchedulerTest {
+	// Tasks handed to the executor, run by the tests in order
+	private final List<Runnable> scheduled = new ArrayList<>();
+	private final List<Runnable> executed = new ArrayList<>();
+
+	// The in-memory values captured by saves, and the writes performed
+	private final Map<String, String> values = new HashMap<>();
+	private final List<String> writes = new ArrayList<>();
+
+	private ScreenMarkerSaveScheduler scheduler;
+
+	@Before
+	public void before() {
+		final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		when(executor.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+			scheduled.add(invocation.getArgument(0));
+			return mock(ScheduledFuture.class);
+		});
+		doAnswer(invocation -> executed.add(invocation.getArgument(0))).when(executor).execute(any(Runnable.class));
+
+		scheduler = new ScreenMarkerSaveScheduler(executor, key -> {
+			final String value = values.get(key);
+			return () -> writes.add(key + "=" + value);
+		}, 100);
+	}
+
+	@Test
+	public void testFlushWritesEachKeyOnce() {
+		edit("b", "1");
+		edit("a", "1");
+		edit("b", "2");
+
+		scheduler.flush();
+		assertEquals(List.of("b=2", "a=1"), writes);
+		assertEquals(3, scheduler.getWritesRequested());
+		assertEquals(1, scheduler.getWritesPerformed());
+
+		// Nothing left to write
+		scheduler.flush();
+		assertEquals(2, writes.size());
+		assertEquals(1, scheduler.getWritesPerformed());
+	}
+
+	@Test
+	public void testDebouncedSave() throws Exception {
+		edit("a", "1");
+		edit("a", "2");
+
+		// The first timer to fire captures both edits, the other finds nothing dirty
+		runTimers();
+		assertEquals(1, executed.size());
+		assertTrue(writes.isEmpty());
+
+		runAll(executed);
+		assertEquals(List.of("a=2"), writes);
+		assertEquals(1, scheduler.getWritesPerformed());
+	}
+
+	@Test
+	public void testOlderCaptureDoesNotOverwriteFlush() throws Exception {
+		edit("a", "1");
+		runTimers();
+
+		// A flush before the captured write ran writes the newer value
+		edit("a", "2");
+		scheduler.flush();
+		assertEquals(List.of("a=2"), writes);
+
+		runAll(executed);
+		assertEquals(List.of("a=2"), writes);
+		// The stale write wrote no key, so it is not counted
+		assertEquals(1, scheduler.getWritesPerformed());
+	}
+
+	@Test
+	public void testTakePending() throws Exception {
+		edit("a", "1");
+		runTimers();
+		edit("b", "1");
+		edit("a", "2");
+
+		// Takes the queued write of a, replaced by its newer capture, and the dirty b
+		final Map<String, Runnable> pending = scheduler.takePending();
+		assertEquals(List.of("a", "b"), new ArrayList<>(pending.keySet()));
+		assertEquals(1, scheduler.getWritesTaken());
+
+		// Neither the queued write nor the timer write anything on their own
+		runAll(executed);
+		runTimers();
+		runAll(executed);
+		scheduler.flush();
+		assertTrue(writes.isEmpty());
+
+		pending.values().forEach(Runnable::run);
+		assertEquals(List.of("a=2", "b=1"), writes);
+	}
+
+	@Test
+	public void testTakePendingWhenNothingIsPending() {
+		assertTrue(scheduler.takePending().isEmpty());
+		assertEquals(0, scheduler.getWritesTaken());
+
+		// Saving continues normally afterwards
+		edit("a", "1");
+		scheduler.flush();
+		assertEquals(List.of("a=1"), writes);
+	}
+
+	private void edit(String key, String value) {
+		values.put(key, value);
+		scheduler.request(key);
+	}
+
+	private void runTimers() throws Exception {
+		runAll(scheduled);
+		// The timers hand the capture to the Swing thread
+		SwingUtilities.invokeAndWait(() -> {
+		});
+	}
+
+	private static void runAll(List<Runnable> tasks) {
+		final List<Runnable> copy = new ArrayList<>(tasks);
+		tasks.clear();
+		copy.forEach(Runnable::run);
+	}
+}
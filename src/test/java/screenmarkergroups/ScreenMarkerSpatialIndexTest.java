@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2025, Bloopser <https://github.com/Bloopser>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package screenmarkergroups;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScreenMarkerSpatialIndexTest {
+	private final ScreenMarkerSpatialIndex index = new ScreenMarkerSpatialIndex();
+
+	@Test
+	public void testMarkerAt() {
+		final ScreenMarkerOverlay marker = marker(100, 100, 20, 10, true);
+		index.add(marker);
+
+		assertSame(marker, index.markerAt(100, 100));
+		assertSame(marker, index.markerAt(119, 109));
+		assertNull(index.markerAt(120, 105));
+		assertNull(index.markerAt(110, 110));
+		assertNull(index.markerAt(99, 105));
+	}
+
+	@Test
+	public void testCellBoundaries() {
+		// Spans the corner of four 64 pixel cells
+		final ScreenMarkerOverlay marker = marker(60, 60, 10, 10, true);
+		index.add(marker);
+
+		assertSame(marker, index.markerAt(60, 60));
+		assertSame(marker, index.markerAt(63, 63));
+		assertSame(marker, index.markerAt(64, 60));
+		assertSame(marker, index.markerAt(60, 64));
+		assertSame(marker, index.markerAt(69, 69));
+		assertNull(index.markerAt(70, 69));
+		assertNull(index.markerAt(59, 64));
+	}
+
+	@Test
+	public void testNegativeCoordinates() {
+		final ScreenMarkerOverlay marker = marker(-10, -70, 20, 80, true);
+		index.add(marker);
+
+		assertSame(marker, index.markerAt(-10, -70));
+		assertSame(marker, index.markerAt(-1, -1));
+		assertSame(marker, index.markerAt(9, 9));
+		assertNull(index.markerAt(-11, 0));
+		assertNull(index.markerAt(0, 10));
+	}
+
+	@Test
+	public void testSmallestMarkerWins() {
+		final ScreenMarkerOverlay large = marker(0, 0, 100, 100, true);
+		final ScreenMarkerOverlay small = marker(40, 40, 10, 10, true);
+		index.add(small);
+		index.add(large);
+
+		assertSame(small, index.markerAt(45, 45));
+		assertSame(large, index.markerAt(20, 20));
+	}
+
+	@Test
+	public void testOversizedMarkers() {
+		// 32 by 32 cells, more than a marker is added to individually
+		final ScreenMarkerOverlay oversized = marker(0, 0, 2048, 2048, true);
+		final ScreenMarkerOverlay small = marker(1500, 1500, 10, 10, true);
+		index.add(oversized);
+		index.add(small);
+
+		assertSame(oversized, index.markerAt(2000, 10));
+		assertSame(small, index.markerAt(1505, 1505));
+		assertNull(index.markerAt(2048, 10));
+
+		// Shrinking it moves it from the oversized list into the cells
+		move(oversized, 0, 0, 100, 100);
+		index.update(oversized);
+		assertNull(index.markerAt(2000, 10));
+		assertSame(oversized, index.markerAt(99, 99));
+
+		// And growing it moves it back
+		move(oversized, 0, 0, 4000, 100);
+		index.update(oversized);
+		assertSame(oversized, index.markerAt(3999, 50));
+		assertNull(index.markerAt(99, 100));
+
+		index.remove(oversized);
+		assertNull(index.markerAt(3999, 50));
+		assertSame(small, index.markerAt(1505, 1505));
+	}
+
+	@Test
+	public void testUpdate() {
+		final ScreenMarkerOverlay marker = marker(0, 0, 10, 10, true);
+		index.add(marker);
+
+		move(marker, 300, 300, 10, 10);
+		index.update(marker);
+		assertNull(index.markerAt(5, 5));
+		assertSame(marker, index.markerAt(305, 305));
+	}
+
+	@Test
+	public void testUnindexedMarkers() {
+		final ScreenMarkerOverlay marker = marker(0, 0, 10, 10, true);
+		index.update(marker);
+		assertNull(index.markerAt(5, 5));
+		assertEquals(0, index.size());
+
+		index.add(marker);
+		index.remove(marker);
+		assertNull(index.markerAt(5, 5));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	public void testMarkersWithoutBounds() {
+		final ScreenMarkerOverlay marker = mock(ScreenMarkerOverlay.class);
+		index.add(marker);
+		assertEquals(1, index.size());
+		assertNull(index.markerAt(0, 0));
+
+		move(marker, 0, 0, 10, 10);
+		setVisible(marker, true);
+		index.update(marker);
+		assertSame(marker, index.markerAt(5, 5));
+	}
+
+	@Test
+	public void testHiddenMarkersAreSkipped() {
+		final ScreenMarkerOverlay visible = marker(0, 0, 100, 100, true);
+		final ScreenMarkerOverlay hidden = marker(40, 40, 10, 10, false);
+		index.add(visible);
+		index.add(hidden);
+
+		assertSame(visible, index.markerAt(45, 45));
+
+		index.clear();
+		assertNull(index.markerAt(45, 45));
+		assertEquals(0, index.size());
+	}
+
+	private static ScreenMarkerOverlay marker(int x, int y, int width, int height, boolean visible) {
+		final ScreenMarkerOverlay overlay = mock(ScreenMarkerOverlay.class);
+		move(overlay, x, y, width, height);
+		setVisible(overlay, visible);
+		return overlay;
+	}
+
+	private static void move(ScreenMarkerOverlay overlay, int x, int y, int width, int height) {
+		when(overlay.getPreferredLocation()).thenReturn(new Point(x, y));
+		when(overlay.getPreferredSize()).thenReturn(new Dimension(width, height));
+	}
+
+	private static void setVisible(ScreenMarkerOverlay overlay, boolean visible) {
+		when(overlay.getRenderState()).thenReturn(new ScreenMarkerRenderState(overlay, 1, null, null, null, "",
+				visible, true, null, null));
+	}
+}